@@ -1,14 +1,32 @@
 package com.opencode.minecraft;
 
 import com.opencode.minecraft.client.OpenCodeClient;
+import com.opencode.minecraft.client.session.SessionStateMachine;
 import com.opencode.minecraft.command.OpenCodeCommand;
 import com.opencode.minecraft.config.ConfigManager;
+import com.opencode.minecraft.config.ModConfig;
+import com.opencode.minecraft.game.LowPowerIdle;
+import com.opencode.minecraft.game.PauseArbitrator;
 import com.opencode.minecraft.game.PauseController;
+import com.opencode.minecraft.game.PauseWindowScheduler;
+import com.opencode.minecraft.game.ProportionalTickRate;
+import com.opencode.minecraft.game.WorldFreeze;
+import com.opencode.minecraft.network.OpenCodeNetwork;
+import com.opencode.minecraft.perf.FrameBudget;
+import com.opencode.minecraft.perf.jfr.JfrEvents;
+import net.minecraft.client.Minecraft;
+import net.minecraft.server.level.ServerPlayer;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.common.Mod;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
 import net.neoforged.neoforge.client.event.ClientTickEvent;
 import net.neoforged.neoforge.client.event.RegisterClientCommandsEvent;
+import net.neoforged.neoforge.client.event.RenderFrameEvent;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.entity.living.LivingIncomingDamageEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.server.ServerStartingEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,6 +38,12 @@ public class OpenCodeMod {
     private static OpenCodeClient client;
     private static PauseController pauseController;
     private static ConfigManager configManager;
+    private static FrameBudget frameBudget;
+    private static WorldFreeze worldFreeze;
+    private static LowPowerIdle lowPowerIdle;
+    private static PauseWindowScheduler pauseWindowScheduler;
+    private static ProportionalTickRate proportionalTickRate;
+    private static PauseArbitrator pauseArbitrator;
 
     public OpenCodeMod(IEventBus modEventBus) {
         LOGGER.info("Initializing OpenCode Minecraft client");
@@ -28,22 +52,99 @@ public class OpenCodeMod {
         configManager = new ConfigManager();
         configManager.load();
 
+        // Initialize main-thread time accounting
+        frameBudget = new FrameBudget(configManager.getConfig().frameBudgetPercent);
+        JfrEvents.setEnabled(configManager.getConfig().jfrEventsEnabled);
+
+        // Session status shared by the client and the pause controller
+        SessionStateMachine sessionState = new SessionStateMachine();
+
         // Initialize pause controller
-        pauseController = new PauseController();
+        pauseController = new PauseController(sessionState);
         pauseController.setEnabled(configManager.getConfig().pauseEnabled);
+        pauseController.setPauseMode(configManager.getConfig().pauseMode);
+        worldFreeze = new WorldFreeze();
+        lowPowerIdle = new LowPowerIdle(pauseController, configManager.getConfig());
+        pauseWindowScheduler = new PauseWindowScheduler(pauseController, configManager.getConfig());
+        pauseArbitrator = new PauseArbitrator(configManager.getConfig());
+
+        // Share the pause decision with LAN servers
+        pauseController.addChangeListener(OpenCodeNetwork::onPauseChanged);
+        modEventBus.addListener(OpenCodeNetwork::register);
 
         // Initialize OpenCode client
-        client = new OpenCodeClient(configManager.getConfig(), pauseController);
+        client = new OpenCodeClient(configManager.getConfig(), sessionState, pauseController);
+
+        proportionalTickRate = new ProportionalTickRate(pauseController, client.getActivity(), configManager.getConfig());
+
+        // Apply setting changes live, from commands or edits of the config file
+        configManager.addChangeListener(OpenCodeMod::applyConfig);
 
         // Register event handlers
         NeoForge.EVENT_BUS.addListener(this::onClientTick);
+        NeoForge.EVENT_BUS.addListener(this::onRenderFrame);
+        NeoForge.EVENT_BUS.addListener(this::onLoggingIn);
+        NeoForge.EVENT_BUS.addListener(this::onLoggingOut);
+        NeoForge.EVENT_BUS.addListener(this::onPlayerLoggedOut);
+        NeoForge.EVENT_BUS.addListener(this::onLivingIncomingDamage);
+        NeoForge.EVENT_BUS.addListener(this::onServerStarting);
+        NeoForge.EVENT_BUS.addListener(this::onServerStopped);
         NeoForge.EVENT_BUS.addListener(this::onRegisterCommands);
 
         LOGGER.info("OpenCode Minecraft client initialized");
     }
 
+    private static void applyConfig(ModConfig config) {
+        frameBudget.setBudgetPercent(config.frameBudgetPercent);
+        JfrEvents.setEnabled(config.jfrEventsEnabled);
+        pauseController.setEnabled(config.pauseEnabled);
+        pauseController.setPauseMode(config.pauseMode);
+        lowPowerIdle.applyConfig(config);
+        pauseWindowScheduler.applyConfig(config);
+        pauseArbitrator.applyConfig(config);
+        proportionalTickRate.applyConfig(config);
+        client.applyConfig(config);
+    }
+
     private void onClientTick(ClientTickEvent.Post event) {
         pauseController.tick();
+        client.tick();
+        proportionalTickRate.tick();
+        frameBudget.endTick();
+    }
+
+    private void onRenderFrame(RenderFrameEvent.Post event) {
+        frameBudget.endFrame();
+    }
+
+    private void onLoggingIn(ClientPlayerNetworkEvent.LoggingIn event) {
+        OpenCodeNetwork.onWorldJoin();
+        pauseController.onWorldJoin(Minecraft.getInstance().isSingleplayer() || OpenCodeNetwork.isAvailable());
+    }
+
+    private void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        pauseController.onWorldUnload();
+    }
+
+    private void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            pauseArbitrator.remove(player);
+        }
+    }
+
+    private void onLivingIncomingDamage(LivingIncomingDamageEvent event) {
+        // Idle LAN players whose world keeps running
+        if (event.getEntity() instanceof ServerPlayer player && pauseArbitrator.isProtected(player)) {
+            event.setCanceled(true);
+        }
+    }
+
+    private void onServerStarting(ServerStartingEvent event) {
+        pauseArbitrator.reset();
+    }
+
+    private void onServerStopped(ServerStoppedEvent event) {
+        pauseArbitrator.reset();
     }
 
     private void onRegisterCommands(RegisterClientCommandsEvent event) {
@@ -61,4 +162,28 @@ public class OpenCodeMod {
     public static ConfigManager getConfigManager() {
         return configManager;
     }
+
+    public static FrameBudget getFrameBudget() {
+        return frameBudget;
+    }
+
+    public static WorldFreeze getWorldFreeze() {
+        return worldFreeze;
+    }
+
+    public static LowPowerIdle getLowPowerIdle() {
+        return lowPowerIdle;
+    }
+
+    public static PauseWindowScheduler getPauseWindowScheduler() {
+        return pauseWindowScheduler;
+    }
+
+    public static ProportionalTickRate getProportionalTickRate() {
+        return proportionalTickRate;
+    }
+
+    public static PauseArbitrator getPauseArbitrator() {
+        return pauseArbitrator;
+    }
 }
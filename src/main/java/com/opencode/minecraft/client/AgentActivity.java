@@ -0,0 +1,82 @@
+package com.opencode.minecraft.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures how actively the agent is working: delta (token) rate,
+ * tool calls in progress and time since the last delta.
+ * Updated and read on the client thread only.
+ */
+public class AgentActivity {
+    // Weight of the newest sample in the per-tick token rate average
+    private static final double RATE_SMOOTHING = 0.1;
+    private static final int TICKS_PER_SECOND = 20;
+
+    // Running tool calls by call ID, mapped to the tool name
+    private final Map<String, String> runningTools = new HashMap<>();
+    private int deltasThisTick = 0;
+    private double tokensPerSecond = 0;
+    private long lastDeltaTime = 0;
+    private String lastToolName = null;
+
+    /**
+     * Called when a delta (token) is received from the LLM
+     */
+    public void onDelta() {
+        deltasThisTick++;
+        lastDeltaTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Called when a tool part changes state
+     */
+    public void onToolState(String callId, String toolName, String state) {
+        if (callId == null) return;
+        if ("pending".equals(state) || "running".equals(state)) {
+            runningTools.put(callId, toolName);
+            lastToolName = toolName;
+        } else {
+            runningTools.remove(callId);
+        }
+    }
+
+    /**
+     * Called when the session goes idle; nothing can still be running
+     */
+    public void onIdle() {
+        runningTools.clear();
+    }
+
+    /**
+     * Called every client tick to update the token rate
+     */
+    public void tick() {
+        double sample = deltasThisTick * TICKS_PER_SECOND;
+        tokensPerSecond += (sample - tokensPerSecond) * RATE_SMOOTHING;
+        deltasThisTick = 0;
+    }
+
+    public double getTokensPerSecond() {
+        return tokensPerSecond;
+    }
+
+    public int getRunningToolCount() {
+        return runningTools.size();
+    }
+
+    /**
+     * Gets the name of the most recently started tool that is still running, or null
+     */
+    public String getCurrentToolName() {
+        if (runningTools.isEmpty()) return null;
+        return runningTools.containsValue(lastToolName) ? lastToolName : runningTools.values().iterator().next();
+    }
+
+    /**
+     * Gets milliseconds since the last delta, or Long.MAX_VALUE if none was received yet
+     */
+    public long getMillisSinceLastDelta() {
+        return lastDeltaTime == 0 ? Long.MAX_VALUE : System.currentTimeMillis() - lastDeltaTime;
+    }
+}
@@ -3,45 +3,80 @@ package com.opencode.minecraft.client;
 import com.opencode.minecraft.OpenCodeMod;
 import com.opencode.minecraft.client.http.OpenCodeHttpClient;
 import com.opencode.minecraft.client.http.SseEvent;
+import com.opencode.minecraft.client.search.SearchIndex;
+import com.opencode.minecraft.client.session.SessionIndex;
 import com.opencode.minecraft.client.session.SessionInfo;
 import com.opencode.minecraft.client.session.SessionManager;
+import com.opencode.minecraft.client.session.SessionStateMachine;
 import com.opencode.minecraft.client.session.SessionStatus;
+import com.opencode.minecraft.client.session.StatusDebouncer;
 import com.opencode.minecraft.config.ModConfig;
 import com.opencode.minecraft.game.MessageRenderer;
 import com.opencode.minecraft.game.PauseController;
+import com.opencode.minecraft.gui.OpenCodeGuiScreen;
+import com.opencode.minecraft.gui.TranscriptStore;
+import com.opencode.minecraft.gui.layout.TextLayout;
+import com.opencode.minecraft.perf.FrameBudget;
+import com.opencode.minecraft.perf.Subsystem;
+import com.opencode.minecraft.perf.jfr.DispatchEvent;
+import com.opencode.minecraft.perf.jfr.JfrEvents;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import net.minecraft.client.Minecraft;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Main coordinator for OpenCode client functionality.
  * Manages HTTP client, session, and event handling.
  */
 public class OpenCodeClient {
-    private final OpenCodeHttpClient httpClient;
+    private volatile OpenCodeHttpClient httpClient;
     private final SessionManager sessionManager;
+    private final SessionIndex sessionIndex;
     private final PauseController pauseController;
     private final MessageRenderer messageRenderer;
-    private final ModConfig config;
+    private final StatusDebouncer statusDebouncer;
+    private final AgentActivity activity = new AgentActivity();
+    private volatile ModConfig config;
+
+    // Search indexes and terminal transcripts of recently seen sessions, client-thread only
+    private static final int MAX_INDEXED_SESSIONS = 8;
+    private final Map<String, SearchIndex> searchIndexes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SearchIndex> eldest) {
+            return size() > MAX_INDEXED_SESSIONS;
+        }
+    };
+    private final Map<String, TranscriptStore> transcriptStores = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TranscriptStore> eldest) {
+            return size() > MAX_INDEXED_SESSIONS;
+        }
+    };
+    private TextLayout textLayout = null;
 
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicInteger pendingDispatches = new AtomicInteger();
     private volatile boolean initialized = false;
-    private volatile java.util.function.Consumer<String> guiMessageListener = null;
-    private volatile Runnable guiResponseCompleteListener = null;
 
-    public OpenCodeClient(ModConfig config, PauseController pauseController) {
+    public OpenCodeClient(ModConfig config, SessionStateMachine stateMachine, PauseController pauseController) {
         this.config = config;
         this.pauseController = pauseController;
         this.httpClient = new OpenCodeHttpClient(config);
-        this.sessionManager = new SessionManager(httpClient);
+        this.sessionManager = new SessionManager(httpClient, stateMachine);
+        this.sessionIndex = new SessionIndex(sessionManager);
         this.messageRenderer = new MessageRenderer();
-
-        // Listen for session status changes
-        sessionManager.addStatusListener(this::onStatusChange);
+        this.statusDebouncer = new StatusDebouncer(config, this::onDebouncedStatus);
 
         // Set up response handler for streaming responses
         httpClient.setResponseHandler(this::handleResponse);
@@ -50,6 +85,36 @@ public class OpenCodeClient {
         initialize();
     }
 
+    /**
+     * Applies changed settings. A new server URL or working directory replaces the HTTP
+     * client and its event stream and reconnects; other settings take effect immediately.
+     */
+    public void applyConfig(ModConfig config) {
+        this.config = config;
+        statusDebouncer.applyConfig(config);
+
+        OpenCodeHttpClient oldClient = httpClient;
+        if (Objects.equals(config.serverUrl, oldClient.getBaseUrl())
+                && Objects.equals(config.workingDirectory, oldClient.getDirectory())) {
+            return;
+        }
+
+        OpenCodeMod.LOGGER.info("Server settings changed, reconnecting to {}", config.serverUrl);
+        OpenCodeHttpClient newClient = new OpenCodeHttpClient(config);
+        newClient.setResponseHandler(this::handleResponse);
+        httpClient = newClient;
+        sessionManager.setHttpClient(newClient);
+        oldClient.shutdown();
+
+        initialized = false;
+        sessionManager.onDisconnected();
+        // Sessions of the old server
+        sessionIndex.update(List.of());
+        sessionIndex.invalidate();
+        messageRenderer.sendSystemMessage("Reconnecting to " + config.serverUrl);
+        scheduler.execute(this::connect);
+    }
+
     private void initialize() {
         // Check health and connect
         scheduler.schedule(this::connect, 1, TimeUnit.SECONDS);
@@ -61,6 +126,8 @@ public class OpenCodeClient {
                     if (healthy) {
                         OpenCodeMod.LOGGER.info("Connected to OpenCode server");
                         sessionManager.onConnected();
+                        // Warm the session list for completion
+                        sessionIndex.refresh();
 
                         // Subscribe to events
                         httpClient.subscribeToEvents(this::handleEvent);
@@ -68,6 +135,7 @@ public class OpenCodeClient {
                         // Resume last session if available
                         if (config.lastSessionId != null) {
                             sessionManager.useSession(config.lastSessionId)
+                                    .thenAccept(this::prepareTranscript)
                                     .exceptionally(e -> {
                                         OpenCodeMod.LOGGER.debug("Could not resume session: {}", e.getMessage());
                                         return null;
@@ -94,74 +162,126 @@ public class OpenCodeClient {
 
     private void handleEvent(SseEvent event) {
         // Dispatch to main thread
+        pendingDispatches.incrementAndGet();
         Minecraft.getInstance().execute(() -> {
-            switch (event.getType()) {
-                case "session.status" -> {
-                    String statusType = event.getStatusType();
-                    if ("idle".equals(statusType)) {
-                        sessionManager.onSessionIdle();
-                        messageRenderer.sendSystemMessage("Ready for input");
-                        // Notify GUI that response is complete
-                        if (guiResponseCompleteListener != null) {
-                            guiResponseCompleteListener.run();
-                        }
-                    } else if ("busy".equals(statusType)) {
-                        sessionManager.onSessionBusy();
-                        messageRenderer.sendSystemMessage("Processing...");
-                    }
-                }
-                case "message.part.updated" -> {
-                    handlePartUpdated(event);
-                }
-                case "message.created" -> {
-                    // Don't clutter chat with message creation events
-                    // messageRenderer.startNewMessage();
-                }
-                case "session.error" -> {
-                    messageRenderer.sendErrorMessage("Session error occurred");
-                }
-                case "server.connected" -> {
-                    messageRenderer.sendSystemMessage("Connected to OpenCode");
+            pendingDispatches.decrementAndGet();
+            DispatchEvent jfrEvent = null;
+            if (JfrEvents.isEnabled()) {
+                jfrEvent = new DispatchEvent();
+                jfrEvent.eventType = event.getType();
+                jfrEvent.sessionId = event.getSessionId();
+                jfrEvent.begin();
+            }
+
+            FrameBudget budget = OpenCodeMod.getFrameBudget();
+            long start = budget.begin();
+            try {
+                dispatchEvent(event);
+            } finally {
+                budget.end(Subsystem.EVENT_DISPATCH, start);
+                if (jfrEvent != null) {
+                    jfrEvent.commit();
                 }
-                case "server.heartbeat" -> {
-                    // Ignore heartbeats
+            }
+        });
+    }
+
+    private void dispatchEvent(SseEvent event) {
+        switch (event.getType()) {
+            case "session.status" -> {
+                String statusType = event.getStatusType();
+                String sessionId = event.getSessionId();
+                SessionInfo current = sessionManager.getCurrentSession();
+                if (sessionId != null && (current == null || !current.getId().equals(sessionId))) {
+                    // Another session on the shared stream: only close its transcript's response
+                    TranscriptStore store = transcriptStores.get(sessionId);
+                    if (store != null && "idle".equals(statusType)) {
+                        store.onResponseComplete();
+                    }
+                    return;
                 }
-                default -> {
-                    // Silently ignore other events
+
+                // Debounced, see onDebouncedStatus
+                if ("idle".equals(statusType)) {
+                    statusDebouncer.submit(SessionStatus.IDLE);
+                } else if ("busy".equals(statusType)) {
+                    statusDebouncer.submit(SessionStatus.BUSY);
                 }
             }
-        });
+            case "message.part.updated" -> {
+                handlePartUpdated(event);
+            }
+            case "message.created" -> {
+                // Don't clutter chat with message creation events
+                // messageRenderer.startNewMessage();
+            }
+            case "session.error" -> {
+                messageRenderer.sendErrorMessage("Session error occurred");
+            }
+            case "server.connected" -> {
+                messageRenderer.sendSystemMessage("Connected to OpenCode");
+            }
+            case "server.heartbeat" -> {
+                // Ignore heartbeats
+            }
+            default -> {
+                // Silently ignore other events
+            }
+        }
     }
 
     private void handlePartUpdated(SseEvent event) {
         String partType = event.getPartType();
         if (partType == null) return;
 
+        // Only the current session's output drives its status, the pause and the tick rate;
+        // other sessions on the shared stream are still indexed and transcribed
+        String sessionId = event.getSessionId();
+        SessionInfo current = sessionManager.getCurrentSession();
+        boolean isCurrent = sessionId == null || (current != null && current.getId().equals(sessionId));
+
         switch (partType) {
             case "text" -> {
                 // Text output with delta
+                String partId = event.getPartId();
                 if (event.hasDelta()) {
-                    sessionManager.onDeltaReceived();
-                    pauseController.onDeltaReceived();
+                    if (isCurrent) onDelta();
                     String delta = event.getDelta();
                     if (delta != null && !delta.isEmpty()) {
-                        // Don't send AI text to chat - only show in GUI
-                        // messageRenderer.appendDelta(delta);
+                        // AI text only goes to chat in chat streaming mode, the GUI always shows it
+                        if (partId != null && OpenCodeMod.getConfigManager().getConfig().chatStreaming) {
+                            messageRenderer.appendDelta(partId, delta);
+                        }
 
-                        // Notify GUI listener if present
-                        if (guiMessageListener != null) {
-                            guiMessageListener.accept(delta);
+                        if (sessionId != null) {
+                            if (partId != null) {
+                                getSearchIndex(sessionId).appendDelta(partId, delta);
+                            }
+                            // The part's text so far locates the delta in it
+                            String textSoFar = event.getTextContent();
+                            TranscriptStore store = findLiveTranscriptStore(sessionId);
+                            if (store != null) {
+                                store.onTextDelta(partId, delta, textSoFar != null ? textSoFar.length() : -1);
+                            }
                         }
                     }
+                } else if (sessionId != null && partId != null && event.getTextContent() != null) {
+                    // Full part text, e.g. the user's prompt or a finished part
+                    getSearchIndex(sessionId).setText(partId, event.getTextContent());
+                    messageRenderer.completePart(partId, event.getTextContent());
                 }
             }
             case "tool" -> {
                 // Tool invocation
                 String toolName = event.getToolName();
                 String toolState = event.getToolState();
+                if (isCurrent) {
+                    activity.onToolState(event.getToolCallId(), toolName, toolState);
+                }
                 if (toolName != null && toolState != null) {
-                    messageRenderer.sendToolMessage(toolName, toolState);
+                    messageRenderer.updateTool(event.getToolCallId(), toolName, toolState);
                 }
+                notifyGuiPart(event);
             }
             case "step-start" -> {
                 // Step started
@@ -170,6 +290,10 @@ public class OpenCodeClient {
                     messageRenderer.sendSystemMessage("Step: " + title);
                 }
             }
+            case "step-finish" -> {
+                // Roll the step's tool calls up into one line
+                messageRenderer.finishStep();
+            }
             case "file" -> {
                 // File operation
                 String filePath = event.getFilePath();
@@ -183,47 +307,103 @@ public class OpenCodeClient {
             }
             case "reasoning" -> {
                 // LLM is thinking - show indicator but not content
-                if (event.hasDelta()) {
-                    sessionManager.onDeltaReceived();
-                    pauseController.onDeltaReceived();
-                    // Don't show reasoning content, just indicate thinking
+                if (event.hasDelta() && isCurrent) {
+                    onDelta();
+                    // Don't show reasoning content in chat, the GUI shows it collapsed
                 }
+                notifyGuiPart(event);
             }
             default -> {
                 // Other part types - just ensure we track activity
-                if (event.hasDelta()) {
-                    sessionManager.onDeltaReceived();
-                    pauseController.onDeltaReceived();
+                if (event.hasDelta() && isCurrent) {
+                    onDelta();
                 }
             }
         }
     }
 
+    /**
+     * Passes a tool or reasoning part to the session's transcript
+     */
+    private void notifyGuiPart(SseEvent event) {
+        JsonObject part = event.getPart();
+        String sessionId = event.getSessionId();
+        TranscriptStore store = sessionId != null ? findLiveTranscriptStore(sessionId) : null;
+        if (part != null && store != null) {
+            store.onPartUpdated(part);
+        }
+    }
+
+    /**
+     * Gets the transcript a live update goes to: the session's existing one, or a new one for
+     * the current session. Other sessions streaming on the shared event stream get none, so
+     * they don't cost a history fetch each.
+     */
+    private TranscriptStore findLiveTranscriptStore(String sessionId) {
+        TranscriptStore store = transcriptStores.get(sessionId);
+        if (store != null) return store;
+
+        SessionInfo current = sessionManager.getCurrentSession();
+        return current != null && current.getId().equals(sessionId) ? getTranscriptStore(sessionId) : null;
+    }
+
+    private void onDelta() {
+        statusDebouncer.onActivity();
+        sessionManager.onDeltaReceived();
+        activity.onDelta();
+    }
+
+    /**
+     * Applies a session.status change once it has held for the configured time
+     */
+    private void onDebouncedStatus(SessionStatus status) {
+        if (status == SessionStatus.IDLE) {
+            sessionManager.onSessionIdle();
+            activity.onIdle();
+            messageRenderer.completeAll();
+            messageRenderer.sendSystemMessage("Ready for input");
+            // Close the response in the terminal transcript
+            SessionInfo session = sessionManager.getCurrentSession();
+            TranscriptStore store = session != null ? transcriptStores.get(session.getId()) : null;
+            if (store != null) {
+                store.onResponseComplete();
+            }
+        } else {
+            sessionManager.onSessionBusy();
+            messageRenderer.sendSystemMessage("Processing...");
+        }
+    }
+
     private void handleResponse(String line) {
         // Handle streaming JSON response from prompt
         // The SSE events will handle the actual content
     }
 
-    private void onStatusChange(SessionStatus status) {
-        pauseController.setStatus(status);
-    }
-
     /**
      * Creates a new session
      */
     public CompletableFuture<SessionInfo> createSession() {
         return sessionManager.createSession()
                 .thenApply(session -> {
+                    sessionIndex.invalidate();
                     OpenCodeMod.getConfigManager().setLastSessionId(session.getId());
+                    prepareTranscript(session);
                     return session;
                 });
     }
 
     /**
-     * Lists all sessions
+     * Lists all sessions, updating the session index
      */
     public CompletableFuture<List<SessionInfo>> listSessions() {
-        return sessionManager.listSessions();
+        return sessionIndex.refresh();
+    }
+
+    /**
+     * Gets the cached session list used for completion and list numbers
+     */
+    public SessionIndex getSessionIndex() {
+        return sessionIndex;
     }
 
     /**
@@ -233,6 +413,7 @@ public class OpenCodeClient {
         return sessionManager.useSession(sessionId)
                 .thenApply(session -> {
                     OpenCodeMod.getConfigManager().setLastSessionId(session.getId());
+                    prepareTranscript(session);
                     return session;
                 });
     }
@@ -242,9 +423,14 @@ public class OpenCodeClient {
      * Response will come through SSE events.
      */
     public CompletableFuture<Void> sendPrompt(String text) {
+        // User action, skip the status debounce
+        statusDebouncer.override(SessionStatus.BUSY);
         pauseController.setUserTyping(false);
-        pauseController.setStatus(SessionStatus.BUSY);
         messageRenderer.addUserMessage(text);
+        SessionInfo session = sessionManager.getCurrentSession();
+        if (session != null) {
+            getTranscriptStore(session.getId()).addUserPrompt(text);
+        }
 
         return sessionManager.sendPrompt(text)
                 .thenAccept(response -> {
@@ -252,7 +438,8 @@ public class OpenCodeClient {
                     Minecraft.getInstance().execute(() -> {
                         if (response != null && response.startsWith("Error:")) {
                             messageRenderer.sendErrorMessage(response);
-                            pauseController.setStatus(SessionStatus.IDLE);
+                            statusDebouncer.override(SessionStatus.IDLE);
+                            sessionManager.onSessionIdle();
                         }
                         // Otherwise, wait for SSE events to deliver the response
                     });
@@ -263,6 +450,7 @@ public class OpenCodeClient {
      * Cancels the current generation
      */
     public CompletableFuture<Void> cancel() {
+        statusDebouncer.override(SessionStatus.IDLE);
         return sessionManager.cancel();
     }
 
@@ -283,30 +471,128 @@ public class OpenCodeClient {
     /**
      * Gets the message history for a session
      */
-    public CompletableFuture<com.google.gson.JsonArray> getSessionMessages(String sessionId) {
+    public CompletableFuture<JsonArray> getSessionMessages(String sessionId) {
         return httpClient.getSessionMessages(sessionId);
     }
 
     /**
-     * Sets a listener for real-time message updates (for GUI)
+     * Gets the latest messages of a session, e.g. for a preview
+     */
+    public CompletableFuture<JsonArray> getSessionMessages(String sessionId, int limit) {
+        return httpClient.getSessionMessages(sessionId, limit);
+    }
+
+    /**
+     * Gets the search index of a session, creating an empty one if needed.
+     * Must be called on the client thread.
      */
-    public void setGuiMessageListener(java.util.function.Consumer<String> listener) {
-        this.guiMessageListener = listener;
+    public SearchIndex getSearchIndex(String sessionId) {
+        return searchIndexes.computeIfAbsent(sessionId, id -> new SearchIndex());
     }
 
     /**
-     * Sets a listener for when a response completes (for GUI)
+     * Indexes the text parts of a session's stored messages.
+     * Parts already seen as deltas are only extended, not indexed twice.
      */
-    public void setGuiResponseCompleteListener(Runnable listener) {
-        this.guiResponseCompleteListener = listener;
+    public void indexHistory(String sessionId, JsonArray messages) {
+        SearchIndex index = getSearchIndex(sessionId);
+        for (JsonElement messageElement : messages) {
+            JsonObject message = messageElement.getAsJsonObject();
+            if (!message.has("parts")) continue;
+
+            for (JsonElement partElement : message.getAsJsonArray("parts")) {
+                JsonObject part = partElement.getAsJsonObject();
+                if (part.has("id") && part.has("text") && part.has("type")
+                        && "text".equals(part.get("type").getAsString())) {
+                    index.setText(part.get("id").getAsString(), part.get("text").getAsString());
+                }
+            }
+        }
+        index.setHistoryLoaded(true);
     }
 
     /**
-     * Removes the GUI message listeners
+     * Gets the search index of a session with its stored history indexed, fetching the
+     * history first if only live deltas have been seen. Completes on the client thread.
      */
-    public void clearGuiMessageListener() {
-        this.guiMessageListener = null;
-        this.guiResponseCompleteListener = null;
+    public CompletableFuture<SearchIndex> getLoadedSearchIndex(String sessionId) {
+        SearchIndex index = getSearchIndex(sessionId);
+        if (index.isHistoryLoaded()) {
+            return CompletableFuture.completedFuture(index);
+        }
+
+        CompletableFuture<SearchIndex> result = new CompletableFuture<>();
+        getSessionMessages(sessionId)
+                .thenAccept(messages -> Minecraft.getInstance().execute(() -> {
+                    indexHistory(sessionId, messages);
+                    result.complete(getSearchIndex(sessionId));
+                }))
+                .exceptionally(e -> {
+                    result.completeExceptionally(e);
+                    return null;
+                });
+        return result;
+    }
+
+    /**
+     * Gets the terminal transcript of a session, creating it and starting its history load
+     * if needed. It keeps ingesting parts whether or not the terminal is open.
+     * Must be called on the client thread.
+     */
+    public TranscriptStore getTranscriptStore(String sessionId) {
+        TranscriptStore store = transcriptStores.get(sessionId);
+        if (store != null) return store;
+
+        store = new TranscriptStore(sessionId, config.transcriptMaxLines);
+        // Lay out for the width the terminal would have now, so opening it doesn't re-wrap
+        int screenWidth = Minecraft.getInstance().getWindow().getGuiScaledWidth();
+        store.setLayout(getTextLayout(), OpenCodeGuiScreen.getMessageWidth(screenWidth));
+        transcriptStores.put(sessionId, store);
+
+        TranscriptStore created = store;
+        getSessionMessages(sessionId)
+                .thenAccept(messages -> Minecraft.getInstance().execute(() -> {
+                    indexHistory(sessionId, messages);
+                    created.onHistoryLoaded(messages);
+                }))
+                .exceptionally(e -> {
+                    Minecraft.getInstance().execute(() -> created.onHistoryFailed(e));
+                    return null;
+                });
+        return store;
+    }
+
+    /**
+     * Gets the transcript the terminal shows: the current session's, or a placeholder
+     * asking for a session
+     */
+    public TranscriptStore getCurrentTranscriptStore() {
+        SessionInfo session = getCurrentSession();
+        if (session == null) {
+            TranscriptStore placeholder = TranscriptStore.withoutSession(config.transcriptMaxLines);
+            placeholder.setLayout(getTextLayout(), OpenCodeGuiScreen.getMessageWidth(Minecraft.getInstance().getWindow().getGuiScaledWidth()));
+            return placeholder;
+        }
+        return getTranscriptStore(session.getId());
+    }
+
+    /**
+     * Gets the text layout shared by all transcripts, so glyph advances are measured once
+     */
+    public TextLayout getTextLayout() {
+        net.minecraft.client.gui.Font font = Minecraft.getInstance().font;
+        if (textLayout == null || textLayout.getFont() != font) {
+            textLayout = new TextLayout(font);
+        }
+        return textLayout;
+    }
+
+    /**
+     * Creates the transcript of a session that just became current, so its history is
+     * loaded before the terminal is opened
+     */
+    private void prepareTranscript(SessionInfo session) {
+        Minecraft.getInstance().execute(() -> getTranscriptStore(session.getId()));
     }
 
     /**
@@ -317,10 +603,35 @@ public class OpenCodeClient {
     }
 
     /**
-     * Ticks the session manager for status timeout checks
+     * Gets the number of SSE events waiting to be dispatched on the main thread
+     */
+    public int getPendingDispatchCount() {
+        return pendingDispatches.get();
+    }
+
+    /**
+     * Gets the session.status debounce filter
+     */
+    public StatusDebouncer getStatusDebouncer() {
+        return statusDebouncer;
+    }
+
+    /**
+     * Gets the agent activity metrics
+     */
+    public AgentActivity getActivity() {
+        return activity;
+    }
+
+    /**
+     * Ticks the session manager for status timeout checks, commits debounced status changes
+     * and updates activity metrics and streaming chat entries
      */
     public void tick() {
         sessionManager.tick();
+        statusDebouncer.tick();
+        activity.tick();
+        messageRenderer.tick();
     }
 
     /**
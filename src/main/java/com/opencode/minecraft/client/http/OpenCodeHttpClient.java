@@ -7,6 +7,10 @@ import com.google.gson.JsonParser;
 import com.opencode.minecraft.OpenCodeMod;
 import com.opencode.minecraft.client.session.SessionInfo;
 import com.opencode.minecraft.config.ModConfig;
+import com.opencode.minecraft.perf.jfr.EventDecodedEvent;
+import com.opencode.minecraft.perf.jfr.JfrEvents;
+import com.opencode.minecraft.perf.jfr.RestCallEvent;
+import com.opencode.minecraft.perf.jfr.SseFrameEvent;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -34,6 +38,7 @@ public class OpenCodeHttpClient {
 
     private volatile boolean connected = false;
     private volatile boolean sseRunning = false;
+    private volatile SseLineSubscriber sseSubscriber;
     private Consumer<SseEvent> eventHandler;
     private Consumer<String> responseHandler;
 
@@ -57,7 +62,7 @@ public class OpenCodeHttpClient {
                 .GET()
                 .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return send("health", null, request, HttpResponse.BodyHandlers.ofString())
                 .thenApply(response -> {
                     connected = response.statusCode() == 200;
                     return connected;
@@ -84,7 +89,7 @@ public class OpenCodeHttpClient {
                 .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
                 .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return send("createSession", null, request, HttpResponse.BodyHandlers.ofString())
                 .thenApply(response -> {
                     if (response.statusCode() != 200 && response.statusCode() != 201) {
                         throw new RuntimeException("Failed to create session: " + response.statusCode());
@@ -104,7 +109,7 @@ public class OpenCodeHttpClient {
                 .GET()
                 .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return send("listSessions", null, request, HttpResponse.BodyHandlers.ofString())
                 .thenApply(response -> {
                     if (response.statusCode() != 200) {
                         throw new RuntimeException("Failed to list sessions: " + response.statusCode());
@@ -128,7 +133,7 @@ public class OpenCodeHttpClient {
                 .GET()
                 .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return send("getSession", sessionId, request, HttpResponse.BodyHandlers.ofString())
                 .thenApply(response -> {
                     if (response.statusCode() != 200) {
                         throw new RuntimeException("Failed to get session: " + response.statusCode());
@@ -165,7 +170,7 @@ public class OpenCodeHttpClient {
                 .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
                 .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return send("sendPrompt", sessionId, request, HttpResponse.BodyHandlers.ofString())
                 .thenApply(response -> {
                     if (response.statusCode() != 200) {
                         OpenCodeMod.LOGGER.error("Failed to send message: {} - {}", response.statusCode(), response.body());
@@ -191,7 +196,7 @@ public class OpenCodeHttpClient {
                 .POST(HttpRequest.BodyPublishers.noBody())
                 .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+        return send("abortSession", sessionId, request, HttpResponse.BodyHandlers.discarding())
                 .thenAccept(response -> {
                     if (response.statusCode() != 200 && response.statusCode() != 204) {
                         OpenCodeMod.LOGGER.warn("Abort returned status: {}", response.statusCode());
@@ -203,13 +208,20 @@ public class OpenCodeHttpClient {
      * Gets the message history for a session
      */
     public CompletableFuture<JsonArray> getSessionMessages(String sessionId) {
+        return getSessionMessages(sessionId, 0);
+    }
+
+    /**
+     * Gets the latest {@code limit} messages of a session, or all of them if limit is 0
+     */
+    public CompletableFuture<JsonArray> getSessionMessages(String sessionId, int limit) {
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + "/session/" + sessionId + "/message"))
+                .uri(URI.create(baseUrl + "/session/" + sessionId + "/message" + (limit > 0 ? "?limit=" + limit : "")))
                 .timeout(Duration.ofSeconds(10))
                 .GET()
                 .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        return send("getSessionMessages", sessionId, request, HttpResponse.BodyHandlers.ofString())
                 .thenApply(response -> {
                     if (response.statusCode() != 200) {
                         OpenCodeMod.LOGGER.warn("Failed to get messages: {}", response.statusCode());
@@ -223,6 +235,32 @@ public class OpenCodeHttpClient {
                 });
     }
 
+    /**
+     * Sends a REST request, recording it as a JFR event when enabled
+     */
+    private <T> CompletableFuture<HttpResponse<T>> send(String operation, String sessionId,
+                                                        HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        if (!JfrEvents.isEnabled()) {
+            return httpClient.sendAsync(request, bodyHandler);
+        }
+
+        RestCallEvent event = new RestCallEvent();
+        event.operation = operation;
+        event.sessionId = sessionId;
+        event.begin();
+
+        return httpClient.sendAsync(request, bodyHandler)
+                .whenComplete((response, error) -> {
+                    if (response != null) {
+                        event.statusCode = response.statusCode();
+                        if (response.body() instanceof String body) {
+                            event.chars = body.length();
+                        }
+                    }
+                    event.commit();
+                });
+    }
+
     /**
      * Subscribes to the global event stream (SSE)
      */
@@ -247,8 +285,10 @@ public class OpenCodeHttpClient {
                         .GET()
                         .build();
 
-                httpClient.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(
-                        new SseLineSubscriber(this::handleSseLine)))
+                SseLineSubscriber subscriber = new SseLineSubscriber(this::handleSseLine);
+                sseSubscriber = subscriber;
+                if (!sseRunning) break;
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(subscriber))
                         .join();
 
             } catch (Exception e) {
@@ -266,30 +306,20 @@ public class OpenCodeHttpClient {
     }
 
     private void handleSseLine(String line) {
-        if (line == null || line.isEmpty()) return;
+        if (line == null || line.isEmpty() || !sseRunning) return;
 
         if (line.startsWith("data: ")) {
+            SseFrameEvent frameEvent = null;
+            if (JfrEvents.isEnabled()) {
+                frameEvent = new SseFrameEvent();
+                frameEvent.begin();
+                frameEvent.chars = line.length();
+            }
+
             String data = line.substring(6);
+            SseEvent event = null;
             try {
-                JsonObject json = JsonParser.parseString(data).getAsJsonObject();
-
-                // SSE events have structure: { directory, payload: { type, properties } }
-                String dir = json.has("directory") ? json.get("directory").getAsString() : "";
-
-                String type = "unknown";
-                JsonObject properties = null;
-
-                if (json.has("payload")) {
-                    JsonObject payload = json.getAsJsonObject("payload");
-                    type = payload.has("type") ? payload.get("type").getAsString() : "unknown";
-                    if (payload.has("properties")) {
-                        properties = payload.getAsJsonObject("properties");
-                    }
-                }
-
-                OpenCodeMod.LOGGER.debug("SSE event received: type={}, hasProps={}", type, properties != null);
-
-                SseEvent event = new SseEvent(type, properties, dir);
+                event = decodeSseData(data);
 
                 if (eventHandler != null) {
                     eventHandler.accept(event);
@@ -297,9 +327,53 @@ public class OpenCodeHttpClient {
             } catch (Exception e) {
                 OpenCodeMod.LOGGER.warn("Failed to parse SSE data: {} - raw: {}", e.getMessage(), data);
             }
+
+            if (frameEvent != null) {
+                if (event != null) {
+                    frameEvent.eventType = event.getType();
+                    frameEvent.sessionId = event.getSessionId();
+                }
+                frameEvent.commit();
+            }
         }
     }
 
+    private SseEvent decodeSseData(String data) {
+        EventDecodedEvent decodedEvent = null;
+        if (JfrEvents.isEnabled()) {
+            decodedEvent = new EventDecodedEvent();
+            decodedEvent.begin();
+            decodedEvent.chars = data.length();
+        }
+
+        JsonObject json = JsonParser.parseString(data).getAsJsonObject();
+
+        // SSE events have structure: { directory, payload: { type, properties } }
+        String dir = json.has("directory") ? json.get("directory").getAsString() : "";
+
+        String type = "unknown";
+        JsonObject properties = null;
+
+        if (json.has("payload")) {
+            JsonObject payload = json.getAsJsonObject("payload");
+            type = payload.has("type") ? payload.get("type").getAsString() : "unknown";
+            if (payload.has("properties")) {
+                properties = payload.getAsJsonObject("properties");
+            }
+        }
+
+        OpenCodeMod.LOGGER.debug("SSE event received: type={}, hasProps={}", type, properties != null);
+
+        SseEvent event = new SseEvent(type, properties, dir);
+
+        if (decodedEvent != null) {
+            decodedEvent.eventType = type;
+            decodedEvent.sessionId = event.getSessionId();
+            decodedEvent.commit();
+        }
+        return event;
+    }
+
     public void setResponseHandler(Consumer<String> handler) {
         this.responseHandler = handler;
     }
@@ -308,9 +382,25 @@ public class OpenCodeHttpClient {
         return connected;
     }
 
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Stops the event stream, closing the open connection rather than waiting for the
+     * server to end it
+     */
     public void disconnect() {
         sseRunning = false;
         connected = false;
+        SseLineSubscriber subscriber = sseSubscriber;
+        if (subscriber != null) {
+            subscriber.cancel();
+        }
     }
 
     public void shutdown() {
@@ -323,7 +413,8 @@ public class OpenCodeHttpClient {
      */
     private static class SseLineSubscriber implements Flow.Subscriber<String> {
         private final Consumer<String> lineHandler;
-        private Flow.Subscription subscription;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled = false;
 
         SseLineSubscriber(Consumer<String> lineHandler) {
             this.lineHandler = lineHandler;
@@ -332,9 +423,21 @@ public class OpenCodeHttpClient {
         @Override
         public void onSubscribe(Flow.Subscription subscription) {
             this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
             subscription.request(Long.MAX_VALUE);
         }
 
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
         @Override
         public void onNext(String item) {
             lineHandler.accept(item);
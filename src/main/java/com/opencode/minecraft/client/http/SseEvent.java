@@ -28,6 +28,21 @@ public class SseEvent {
         return directory;
     }
 
+    /**
+     * Gets the session ID this event belongs to, if present
+     */
+    public String getSessionId() {
+        if (properties == null) return null;
+        if (properties.has("sessionID")) {
+            return properties.get("sessionID").getAsString();
+        }
+        JsonObject part = getPart();
+        if (part != null && part.has("sessionID")) {
+            return part.get("sessionID").getAsString();
+        }
+        return null;
+    }
+
     /**
      * Checks if this is a message part update with a delta (token)
      */
@@ -64,6 +79,15 @@ public class SseEvent {
         return properties.getAsJsonObject("part");
     }
 
+    /**
+     * Gets the part ID
+     */
+    public String getPartId() {
+        JsonObject part = getPart();
+        if (part == null || !part.has("id")) return null;
+        return part.get("id").getAsString();
+    }
+
     /**
      * Gets the part type (text, tool, reasoning, file, step-start, etc.)
      */
@@ -82,6 +106,15 @@ public class SseEvent {
         return part.get("tool").getAsString();
     }
 
+    /**
+     * Gets the tool call ID if this is a tool part
+     */
+    public String getToolCallId() {
+        JsonObject part = getPart();
+        if (part == null || !part.has("callID")) return null;
+        return part.get("callID").getAsString();
+    }
+
     /**
      * Gets the tool state (pending, running, completed, error)
      */
@@ -0,0 +1,328 @@
+package com.opencode.minecraft.client.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Incremental inverted index over the text parts of one session.
+ *
+ * Documents are text parts, keyed by part ID. Text is tokenized as it arrives: a streamed
+ * delta only indexes the words it finishes, and a full part update (history, final part
+ * state) only indexes what the document has not seen yet. Postings are sorted document ID
+ * arrays, so a query intersects the shortest list first and never looks at the text of
+ * documents that can't match.
+ *
+ * Client-thread only.
+ */
+public class SearchIndex {
+    // Longer tokens are hashes, base64 and the like, not worth a term
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private final Map<String, Document> byPartId = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+
+    // Documents whose last word may still grow with the next delta
+    private final Set<Document> openTails = new LinkedHashSet<>();
+    private boolean historyLoaded = false;
+
+    /**
+     * Appends a streamed delta to a text part
+     */
+    public void appendDelta(String partId, String delta) {
+        Document doc = getOrCreate(partId);
+        doc.text.append(delta);
+        indexNewText(doc, false);
+    }
+
+    /**
+     * Sets the complete text of a part. Text that extends what was already indexed only
+     * indexes the new suffix; a rewritten part is indexed again from the start (stale terms
+     * of the old text are left behind, which can only cause an extra hit).
+     */
+    public void setText(String partId, String text) {
+        Document doc = getOrCreate(partId);
+        int known = doc.text.length();
+        if (text.length() == known && text.contentEquals(doc.text)) {
+            indexNewText(doc, true);
+            return;
+        }
+
+        if (text.length() > known && text.regionMatches(0, doc.text.toString(), 0, known)) {
+            doc.text.append(text, known, text.length());
+        } else {
+            doc.text.setLength(0);
+            doc.text.append(text);
+            doc.scanned = 0;
+            doc.wordStart = -1;
+        }
+        indexNewText(doc, true);
+    }
+
+    /**
+     * Finds the parts that contain every term of the query. The last term also matches as a
+     * prefix, so results update sensibly while the query is being typed.
+     *
+     * @return part IDs in the order they were first indexed
+     */
+    public List<String> search(String query) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) return Collections.emptyList();
+
+        // Words still being streamed are matched as they stand rather than indexed, so a
+        // partial word never becomes a term
+        Map<Document, String> tails = openTailWords();
+
+        // Exact terms, smallest match first
+        List<TermMatch> exact = new ArrayList<>();
+        for (int i = 0; i < queryTerms.size() - 1; i++) {
+            String term = queryTerms.get(i);
+            TermMatch match = new TermMatch(terms.get(term), matchTails(tails, term, false));
+            if (match.size() == 0) return Collections.emptyList();
+            exact.add(match);
+        }
+        exact.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        // Union of every term that starts with the last query term
+        String prefix = queryTerms.get(queryTerms.size() - 1);
+        BitSet prefixDocs = matchTails(tails, prefix, true);
+        for (Postings postings : terms.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            for (int i = 0; i < postings.size; i++) {
+                prefixDocs.set(postings.ids[i]);
+            }
+        }
+
+        List<String> result = new ArrayList<>();
+        BitSet candidates = prefixDocs;
+        if (!exact.isEmpty()) {
+            candidates = exact.get(0).toBitSet();
+            candidates.and(prefixDocs);
+        }
+        candidates:
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            for (int j = 1; j < exact.size(); j++) {
+                if (!exact.get(j).contains(id)) continue candidates;
+            }
+            result.add(documents.get(id).partId);
+        }
+        return result;
+    }
+
+    /**
+     * Gets a short excerpt of a part around the first occurrence of a query term
+     */
+    public String snippet(String partId, String query, int maxChars) {
+        Document doc = byPartId.get(partId);
+        if (doc == null) return "";
+
+        String text = doc.text.toString();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int at = -1;
+        for (String term : tokenize(query)) {
+            at = lower.indexOf(term);
+            if (at >= 0) break;
+        }
+
+        int start = Math.max(0, Math.min(at - maxChars / 4, text.length() - maxChars));
+        int end = Math.min(text.length(), start + maxChars);
+        String excerpt = text.substring(start, end).replace('\n', ' ').trim();
+        return (start > 0 ? "..." : "") + excerpt + (end < text.length() ? "..." : "");
+    }
+
+    /**
+     * Splits text into lower-case index terms the same way documents are tokenized
+     */
+    public static List<String> tokenize(String text) {
+        List<String> out = new ArrayList<>();
+        int wordStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && isWordChar(text.charAt(i));
+            if (word && wordStart < 0) {
+                wordStart = i;
+            } else if (!word && wordStart >= 0) {
+                if (i - wordStart <= MAX_TERM_LENGTH) {
+                    out.add(text.substring(wordStart, i).toLowerCase(Locale.ROOT));
+                }
+                wordStart = -1;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Returns true once the session's stored history has been indexed, not just live deltas
+     */
+    public boolean isHistoryLoaded() {
+        return historyLoaded;
+    }
+
+    public void setHistoryLoaded(boolean historyLoaded) {
+        this.historyLoaded = historyLoaded;
+    }
+
+    public int getDocumentCount() {
+        return documents.size();
+    }
+
+    public int getTermCount() {
+        return terms.size();
+    }
+
+    private Document getOrCreate(String partId) {
+        Document doc = byPartId.get(partId);
+        if (doc == null) {
+            doc = new Document(documents.size(), partId);
+            documents.add(doc);
+            byPartId.put(partId, doc);
+        }
+        return doc;
+    }
+
+    /**
+     * Indexes the words finished since the last scan. With {@code complete} the trailing
+     * word is indexed as well, since no more text will follow it.
+     */
+    private void indexNewText(Document doc, boolean complete) {
+        StringBuilder text = doc.text;
+        int length = text.length();
+        for (int i = doc.scanned; i < length; i++) {
+            if (isWordChar(text.charAt(i))) {
+                if (doc.wordStart < 0) doc.wordStart = i;
+            } else if (doc.wordStart >= 0) {
+                addTerm(text, doc.wordStart, i, doc);
+                doc.wordStart = -1;
+            }
+        }
+        doc.scanned = length;
+
+        if (complete && doc.wordStart >= 0) {
+            addTerm(text, doc.wordStart, length, doc);
+            doc.wordStart = -1;
+        }
+
+        if (doc.wordStart >= 0) {
+            openTails.add(doc);
+        } else {
+            openTails.remove(doc);
+        }
+    }
+
+    /**
+     * Gets the words still being streamed, lower-cased, by document
+     */
+    private Map<Document, String> openTailWords() {
+        Map<Document, String> tails = new HashMap<>();
+        for (Document doc : openTails) {
+            if (doc.scanned - doc.wordStart <= MAX_TERM_LENGTH) {
+                tails.put(doc, doc.text.substring(doc.wordStart, doc.scanned).toLowerCase(Locale.ROOT));
+            }
+        }
+        return tails;
+    }
+
+    private BitSet matchTails(Map<Document, String> tails, String term, boolean prefix) {
+        BitSet matches = new BitSet(documents.size());
+        for (Map.Entry<Document, String> tail : tails.entrySet()) {
+            if (prefix ? tail.getValue().startsWith(term) : tail.getValue().equals(term)) {
+                matches.set(tail.getKey().id);
+            }
+        }
+        return matches;
+    }
+
+    private void addTerm(CharSequence text, int start, int end, Document doc) {
+        if (end - start > MAX_TERM_LENGTH) return;
+        String term = text.subSequence(start, end).toString().toLowerCase(Locale.ROOT);
+        terms.computeIfAbsent(term, t -> new Postings()).add(doc.id);
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static class Document {
+        final int id;
+        final String partId;
+        final StringBuilder text = new StringBuilder();
+        // Characters tokenized so far, and the start of the word still open at that point
+        int scanned = 0;
+        int wordStart = -1;
+
+        Document(int id, String partId) {
+            this.id = id;
+            this.partId = partId;
+        }
+    }
+
+    /**
+     * The documents matching one exact query term: its postings, if it is a term yet, and
+     * the documents whose streamed tail is that word
+     */
+    private static class TermMatch {
+        final Postings postings;
+        final BitSet tails;
+
+        TermMatch(Postings postings, BitSet tails) {
+            this.postings = postings;
+            this.tails = tails;
+        }
+
+        int size() {
+            return (postings != null ? postings.size : 0) + tails.cardinality();
+        }
+
+        boolean contains(int id) {
+            return tails.get(id) || (postings != null && postings.contains(id));
+        }
+
+        BitSet toBitSet() {
+            BitSet set = (BitSet) tails.clone();
+            if (postings != null) {
+                for (int i = 0; i < postings.size; i++) {
+                    set.set(postings.ids[i]);
+                }
+            }
+            return set;
+        }
+    }
+
+    /**
+     * Sorted, duplicate-free document IDs for one term. Parts stream mostly in order, so
+     * adds are nearly always appends.
+     */
+    private static class Postings {
+        int[] ids = new int[4];
+        int size = 0;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) return;
+
+            int at = size;
+            if (size > 0 && ids[size - 1] > id) {
+                int found = Arrays.binarySearch(ids, 0, size, id);
+                if (found >= 0) return;
+                at = -found - 1;
+            }
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
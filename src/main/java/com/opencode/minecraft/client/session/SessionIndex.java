@@ -0,0 +1,156 @@
+package com.opencode.minecraft.client.session;
+
+import com.opencode.minecraft.OpenCodeMod;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Local copy of the server's session list, for completion and numeric shortcuts.
+ *
+ * Reads never touch the network: they return the last fetched list, and a stale list is
+ * refreshed in the background for the next read. Concurrent refreshes share one request.
+ * Numbers are 1-based positions in the list, the same order /oc session list shows.
+ */
+public class SessionIndex {
+    // A list older than this is refreshed on the next read
+    private static final long STALE_AFTER_MS = 10_000;
+
+    private final SessionManager sessionManager;
+    private volatile List<SessionInfo> sessions = List.of();
+    private volatile long refreshedAt = 0;
+    private CompletableFuture<List<SessionInfo>> inFlight = null;
+
+    public SessionIndex(SessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+    }
+
+    /**
+     * Gets the cached session list, starting a background refresh if it is stale
+     */
+    public List<SessionInfo> getSessions() {
+        if (System.currentTimeMillis() - refreshedAt > STALE_AFTER_MS) {
+            refresh();
+        }
+        return sessions;
+    }
+
+    /**
+     * Fetches the session list. Returns the request already in flight if there is one.
+     */
+    public synchronized CompletableFuture<List<SessionInfo>> refresh() {
+        if (inFlight != null) return inFlight;
+
+        CompletableFuture<List<SessionInfo>> request = sessionManager.listSessions();
+        inFlight = request;
+        request.whenComplete((list, e) -> {
+            synchronized (this) {
+                inFlight = null;
+            }
+            if (list != null) {
+                update(list);
+            } else {
+                OpenCodeMod.LOGGER.debug("Session list refresh failed: {}", e.getMessage());
+            }
+        });
+        return request;
+    }
+
+    /**
+     * Replaces the cached list, e.g. with one fetched for /oc session list
+     */
+    public void update(List<SessionInfo> list) {
+        sessions = List.copyOf(list);
+        refreshedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Drops the cached list's freshness so the next read refreshes it
+     */
+    public void invalidate() {
+        refreshedAt = 0;
+    }
+
+    /**
+     * Resolves a list number or a unique ID prefix to a session ID. Anything else is
+     * returned as is, for the server to validate.
+     */
+    public String resolve(String idOrNumber) {
+        List<SessionInfo> list = sessions;
+        try {
+            int number = Integer.parseInt(idOrNumber);
+            if (number >= 1 && number <= list.size()) {
+                return list.get(number - 1).getId();
+            }
+        } catch (NumberFormatException e) {
+            // Not a number
+        }
+
+        SessionInfo match = null;
+        for (SessionInfo session : list) {
+            if (session.getId().equals(idOrNumber)) return idOrNumber;
+            if (session.getId().startsWith(idOrNumber)) {
+                if (match != null) return idOrNumber;
+                match = session;
+            }
+        }
+        return match != null ? match.getId() : idOrNumber;
+    }
+
+    /**
+     * Finds sessions whose ID starts with the query or whose title fuzzily matches it,
+     * best matches first
+     */
+    public List<SessionInfo> match(String query, int limit) {
+        String lower = query.toLowerCase(Locale.ROOT);
+        List<Scored> scored = new ArrayList<>();
+        for (SessionInfo session : sessions) {
+            int score = session.getId().toLowerCase(Locale.ROOT).startsWith(lower)
+                    ? Integer.MAX_VALUE
+                    : fuzzyScore(session.getTitle().toLowerCase(Locale.ROOT), lower);
+            if (score >= 0) {
+                scored.add(new Scored(session, score));
+            }
+        }
+        scored.sort(Comparator.comparingInt(Scored::score).reversed()
+                .thenComparing(s -> -s.session().getUpdatedAt()));
+
+        List<SessionInfo> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, scored.size()); i++) {
+            result.add(scored.get(i).session());
+        }
+        return result;
+    }
+
+    /**
+     * Scores the query as a subsequence of the text: consecutive characters and matches at
+     * word starts score higher. Returns -1 if the text does not contain the query's
+     * characters in order.
+     */
+    static int fuzzyScore(String text, String query) {
+        if (query.isEmpty()) return 0;
+
+        int score = 0;
+        int streak = 0;
+        int q = 0;
+        for (int i = 0; i < text.length() && q < query.length(); i++) {
+            if (text.charAt(i) != query.charAt(q)) {
+                streak = 0;
+                continue;
+            }
+            streak++;
+            score += streak;
+            if (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                score += 3;
+            }
+            q++;
+        }
+        return q == query.length() ? score : -1;
+    }
+
+    private record Scored(SessionInfo session, int score) {
+    }
+}
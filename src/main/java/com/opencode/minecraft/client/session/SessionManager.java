@@ -5,21 +5,20 @@ import com.opencode.minecraft.client.http.OpenCodeHttpClient;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.function.Consumer;
 
 /**
  * Manages OpenCode sessions and their lifecycle.
+ * The session status lives in the shared {@link SessionStateMachine}.
  */
 public class SessionManager {
-    private final OpenCodeHttpClient httpClient;
-    private final List<Consumer<SessionStatus>> statusListeners = new CopyOnWriteArrayList<>();
+    private volatile OpenCodeHttpClient httpClient;
+    private final SessionStateMachine stateMachine;
 
-    private SessionInfo currentSession;
-    private SessionStatus status = SessionStatus.DISCONNECTED;
+    private volatile SessionInfo currentSession;
 
-    public SessionManager(OpenCodeHttpClient httpClient) {
+    public SessionManager(OpenCodeHttpClient httpClient, SessionStateMachine stateMachine) {
         this.httpClient = httpClient;
+        this.stateMachine = stateMachine;
     }
 
     /**
@@ -29,7 +28,7 @@ public class SessionManager {
         return httpClient.createSession()
                 .thenApply(session -> {
                     this.currentSession = session;
-                    setStatus(SessionStatus.IDLE);
+                    stateMachine.transition(SessionStatus.IDLE);
                     OpenCodeMod.LOGGER.info("Created session: {}", session.getId());
                     return session;
                 });
@@ -49,7 +48,7 @@ public class SessionManager {
         return httpClient.getSession(sessionId)
                 .thenApply(session -> {
                     this.currentSession = session;
-                    setStatus(SessionStatus.IDLE);
+                    stateMachine.transition(SessionStatus.IDLE);
                     OpenCodeMod.LOGGER.info("Switched to session: {}", session.getId());
                     return session;
                 });
@@ -65,7 +64,7 @@ public class SessionManager {
                     new IllegalStateException("No active session"));
         }
 
-        setStatus(SessionStatus.BUSY);
+        stateMachine.transition(SessionStatus.BUSY);
         return httpClient.sendPrompt(currentSession.getId(), text);
         // Don't set IDLE here - let SSE session.status events drive state
     }
@@ -79,15 +78,16 @@ public class SessionManager {
         }
 
         return httpClient.abortSession(currentSession.getId())
-                .thenRun(() -> setStatus(SessionStatus.IDLE));
+                .thenRun(() -> stateMachine.transition(SessionStatus.IDLE));
     }
 
     /**
-     * Called when a delta (token) is received from the LLM
+     * Called when a delta (token) is received from the LLM.
+     * Once generating this is a single read, so it is cheap on every token.
      */
     public void onDeltaReceived() {
-        if (status != SessionStatus.GENERATING) {
-            setStatus(SessionStatus.GENERATING);
+        if (stateMachine.get() != SessionStatus.GENERATING) {
+            stateMachine.transition(SessionStatus.GENERATING);
         }
     }
 
@@ -95,32 +95,38 @@ public class SessionManager {
      * Called when the session becomes idle
      */
     public void onSessionIdle() {
-        setStatus(SessionStatus.IDLE);
+        stateMachine.transition(SessionStatus.IDLE);
     }
 
     /**
      * Called when the session is busy but not generating
      */
     public void onSessionBusy() {
-        if (status != SessionStatus.GENERATING) {
-            setStatus(SessionStatus.BUSY);
+        SessionStatus current = stateMachine.get();
+        if (current != SessionStatus.GENERATING) {
+            stateMachine.transitionFrom(current, SessionStatus.BUSY);
         }
     }
 
+    /**
+     * Switches to a new HTTP client after the server settings changed
+     */
+    public void setHttpClient(OpenCodeHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
     /**
      * Called when connection is established
      */
     public void onConnected() {
-        if (status == SessionStatus.DISCONNECTED) {
-            setStatus(SessionStatus.IDLE);
-        }
+        stateMachine.transitionFrom(SessionStatus.DISCONNECTED, SessionStatus.IDLE);
     }
 
     /**
      * Called when connection is lost
      */
     public void onDisconnected() {
-        setStatus(SessionStatus.DISCONNECTED);
+        stateMachine.transition(SessionStatus.DISCONNECTED);
     }
 
     /**
@@ -136,30 +142,10 @@ public class SessionManager {
     }
 
     public SessionStatus getStatus() {
-        return status;
+        return stateMachine.get();
     }
 
-    public void addStatusListener(Consumer<SessionStatus> listener) {
-        statusListeners.add(listener);
-    }
-
-    public void removeStatusListener(Consumer<SessionStatus> listener) {
-        statusListeners.remove(listener);
-    }
-
-    private void setStatus(SessionStatus newStatus) {
-        if (this.status != newStatus) {
-            SessionStatus oldStatus = this.status;
-            this.status = newStatus;
-            OpenCodeMod.LOGGER.debug("Session status changed: {} -> {}", oldStatus, newStatus);
-
-            for (Consumer<SessionStatus> listener : statusListeners) {
-                try {
-                    listener.accept(newStatus);
-                } catch (Exception e) {
-                    OpenCodeMod.LOGGER.error("Error in status listener", e);
-                }
-            }
-        }
+    public SessionStateMachine getStateMachine() {
+        return stateMachine;
     }
 }
@@ -0,0 +1,124 @@
+package com.opencode.minecraft.client.session;
+
+import com.opencode.minecraft.OpenCodeMod;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * The single source of truth for the session status.
+ *
+ * Transitions are compare-and-set on an atomic reference and checked against a fixed
+ * transition table, so HTTP callback threads and the main thread can update it without
+ * locks. Listeners receive each transition on the executor they registered with.
+ */
+public class SessionStateMachine {
+    private static final Map<SessionStatus, Set<SessionStatus>> TRANSITIONS = new EnumMap<>(SessionStatus.class);
+
+    static {
+        TRANSITIONS.put(SessionStatus.DISCONNECTED, EnumSet.of(SessionStatus.IDLE));
+        TRANSITIONS.put(SessionStatus.IDLE, EnumSet.of(SessionStatus.BUSY, SessionStatus.GENERATING,
+                SessionStatus.RETRY, SessionStatus.DISCONNECTED));
+        TRANSITIONS.put(SessionStatus.BUSY, EnumSet.of(SessionStatus.IDLE, SessionStatus.GENERATING,
+                SessionStatus.RETRY, SessionStatus.DISCONNECTED));
+        TRANSITIONS.put(SessionStatus.GENERATING, EnumSet.of(SessionStatus.IDLE, SessionStatus.BUSY,
+                SessionStatus.RETRY, SessionStatus.DISCONNECTED));
+        TRANSITIONS.put(SessionStatus.RETRY, EnumSet.of(SessionStatus.IDLE, SessionStatus.BUSY,
+                SessionStatus.GENERATING, SessionStatus.DISCONNECTED));
+    }
+
+    private final AtomicReference<SessionStatus> state = new AtomicReference<>(SessionStatus.DISCONNECTED);
+    private final List<Registration> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Gets the current status
+     */
+    public SessionStatus get() {
+        return state.get();
+    }
+
+    /**
+     * Moves to the given status from whatever the current status is.
+     * Returns false if already there or if the table does not allow the transition.
+     */
+    public boolean transition(SessionStatus to) {
+        while (true) {
+            SessionStatus from = state.get();
+            if (from == to) return false;
+            if (!isAllowed(from, to)) {
+                logRejected(from, to);
+                return false;
+            }
+            if (state.compareAndSet(from, to)) {
+                notifyListeners(from, to);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Moves to the given status only if the current status is {@code expected}.
+     * A single compare-and-set; returns false if the status was something else.
+     */
+    public boolean transitionFrom(SessionStatus expected, SessionStatus to) {
+        if (expected == to) return false;
+        if (!isAllowed(expected, to)) {
+            logRejected(expected, to);
+            return false;
+        }
+        if (!state.compareAndSet(expected, to)) return false;
+        notifyListeners(expected, to);
+        return true;
+    }
+
+    private static void logRejected(SessionStatus from, SessionStatus to) {
+        OpenCodeMod.LOGGER.debug("Rejected session status transition {} -> {}", from, to);
+    }
+
+    /**
+     * Returns true if the transition table allows moving between the two statuses
+     */
+    public static boolean isAllowed(SessionStatus from, SessionStatus to) {
+        return TRANSITIONS.get(from).contains(to);
+    }
+
+    /**
+     * Adds a listener that receives every transition on the given executor.
+     * With a direct executor ({@code Runnable::run}) it runs on the thread that made the
+     * transition, so listeners that need the latest status should read {@link #get}.
+     */
+    public void addListener(Executor executor, Consumer<Transition> listener) {
+        listeners.add(new Registration(executor, listener));
+    }
+
+    private void notifyListeners(SessionStatus from, SessionStatus to) {
+        OpenCodeMod.LOGGER.debug("Session status changed: {} -> {}", from, to);
+
+        Transition transition = new Transition(from, to);
+        for (Registration registration : listeners) {
+            registration.executor.execute(() -> {
+                try {
+                    registration.listener.accept(transition);
+                } catch (Exception e) {
+                    OpenCodeMod.LOGGER.error("Error in status listener", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * A status change from one status to another
+     */
+    public record Transition(SessionStatus from, SessionStatus to) {
+    }
+
+    private record Registration(Executor executor, Consumer<Transition> listener) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.opencode.minecraft.client.session;
+
+import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.config.ModConfig;
+
+import java.util.function.Consumer;
+
+/**
+ * Filters session.status flips coming from the server.
+ *
+ * Between tool steps the server often reports idle and then busy again within a few
+ * milliseconds. A status change is only committed once it has held for the configured
+ * time; a flip back within that window cancels it and is counted as suppressed.
+ * User actions bypass the filter through {@link #override}.
+ *
+ * Client-thread only.
+ */
+public class StatusDebouncer {
+    private final Consumer<SessionStatus> committer;
+    private volatile long idleHoldMs;
+    private volatile long busyHoldMs;
+
+    // Last status passed on (IDLE or BUSY)
+    private SessionStatus committed = SessionStatus.IDLE;
+    private SessionStatus pending = null;
+    private long pendingDeadline = 0;
+
+    private long suppressedIdleCount = 0;
+    private long suppressedBusyCount = 0;
+    private long committedCount = 0;
+
+    public StatusDebouncer(ModConfig config, Consumer<SessionStatus> committer) {
+        this.committer = committer;
+        applyConfig(config);
+    }
+
+    public void applyConfig(ModConfig config) {
+        this.idleHoldMs = Math.max(0, config.statusIdleHoldMs);
+        this.busyHoldMs = Math.max(0, config.statusBusyHoldMs);
+    }
+
+    /**
+     * Called for each IDLE or BUSY status reported by the server
+     */
+    public void submit(SessionStatus status) {
+        if (status == committed) {
+            // Flipped back before the pending change was committed
+            cancelPending();
+            return;
+        }
+        if (status == pending) {
+            // Keep the original deadline
+            return;
+        }
+
+        long hold = status == SessionStatus.IDLE ? idleHoldMs : busyHoldMs;
+        if (hold == 0) {
+            pending = null;
+            commit(status);
+            return;
+        }
+
+        pending = status;
+        pendingDeadline = System.currentTimeMillis() + hold;
+    }
+
+    /**
+     * Called when output arrives, which proves the session is still working. Any pending
+     * change is dropped: a pending IDLE was a flip and counts as suppressed, a pending BUSY
+     * is confirmed and takes effect now.
+     */
+    public void onActivity() {
+        if (pending == SessionStatus.IDLE) {
+            cancelPending();
+        } else {
+            pending = null;
+        }
+        committed = SessionStatus.BUSY;
+    }
+
+    /**
+     * Takes effect immediately for user-initiated changes (sending a prompt, cancelling).
+     * The caller updates the session state itself, so the committer is not called.
+     */
+    public void override(SessionStatus status) {
+        pending = null;
+        committed = status;
+    }
+
+    /**
+     * Called every client tick to commit changes whose hold time has passed
+     */
+    public void tick() {
+        if (pending != null && System.currentTimeMillis() >= pendingDeadline) {
+            SessionStatus status = pending;
+            pending = null;
+            commit(status);
+        }
+    }
+
+    private void cancelPending() {
+        if (pending == null) return;
+
+        if (pending == SessionStatus.IDLE) {
+            suppressedIdleCount++;
+        } else {
+            suppressedBusyCount++;
+        }
+        OpenCodeMod.LOGGER.debug("Suppressed status flip to {}", pending);
+        pending = null;
+    }
+
+    private void commit(SessionStatus status) {
+        committed = status;
+        committedCount++;
+        committer.accept(status);
+    }
+
+    /**
+     * Gets the number of idle reports dropped because the session went busy again
+     */
+    public long getSuppressedIdleCount() {
+        return suppressedIdleCount;
+    }
+
+    /**
+     * Gets the number of busy reports dropped because the session went idle again
+     */
+    public long getSuppressedBusyCount() {
+        return suppressedBusyCount;
+    }
+
+    /**
+     * Gets the number of status changes passed on
+     */
+    public long getCommittedCount() {
+        return committedCount;
+    }
+}
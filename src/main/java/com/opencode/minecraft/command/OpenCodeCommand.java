@@ -6,14 +6,17 @@ import com.mojang.brigadier.context.CommandContext;
 import com.opencode.minecraft.OpenCodeMod;
 import com.opencode.minecraft.client.OpenCodeClient;
 import com.opencode.minecraft.client.session.SessionInfo;
+import com.opencode.minecraft.client.session.StatusDebouncer;
 import com.opencode.minecraft.gui.OpenCodeGuiScreen;
+import com.opencode.minecraft.gui.SessionBrowserScreen;
+import com.opencode.minecraft.perf.FrameBudget;
+import com.opencode.minecraft.perf.Subsystem;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.network.chat.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -26,17 +29,19 @@ import java.util.List;
  * - /oc <prompt>        - Send a prompt to OpenCode
  * - /oc status          - Show connection and session status
  * - /oc session new     - Create a new session
- * - /oc session list    - List available sessions
+ * - /oc session list    - Browse sessions
  * - /oc session use <id> - Switch to an existing session
  * - /oc cancel          - Cancel current generation
  * - /oc config url <url> - Set server URL
  * - /oc config dir <path> - Set working directory
  * - /oc pause           - Toggle pause controller
+ * - /oc perf            - Show main-thread time spent by the mod
+ * - /oc search <terms>  - Search the current session's messages
  */
 public class OpenCodeCommand {
 
-    // Cache of sessions from last list command, indexed by number (1-based)
-    private static List<SessionInfo> cachedSessions = new ArrayList<>();
+    // Matches shown in chat by /oc search
+    private static final int SEARCH_RESULTS = 8;
 
     public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
         dispatcher.register(
@@ -61,6 +66,15 @@ public class OpenCodeCommand {
                 .then(Commands.literal("pause")
                     .executes(OpenCodeCommand::executePause))
 
+                // /oc perf
+                .then(Commands.literal("perf")
+                    .executes(OpenCodeCommand::executePerf))
+
+                // /oc search <terms>
+                .then(Commands.literal("search")
+                    .then(Commands.argument("terms", StringArgumentType.greedyString())
+                        .executes(OpenCodeCommand::executeSearch)))
+
                 // /oc session ...
                 .then(Commands.literal("session")
                     // /oc session new
@@ -72,6 +86,7 @@ public class OpenCodeCommand {
                     // /oc session use <id>
                     .then(Commands.literal("use")
                         .then(Commands.argument("sessionId", StringArgumentType.string())
+                            .suggests(new SessionSuggestionProvider())
                             .executes(OpenCodeCommand::executeSessionUse))))
 
                 // /oc config ...
@@ -107,13 +122,17 @@ public class OpenCodeCommand {
         source.sendSystemMessage(Component.literal("/oc session new").withStyle(ChatFormatting.GREEN)
                 .append(Component.literal(" - Create new session").withStyle(ChatFormatting.GRAY)));
         source.sendSystemMessage(Component.literal("/oc session list").withStyle(ChatFormatting.GREEN)
-                .append(Component.literal(" - List sessions").withStyle(ChatFormatting.GRAY)));
+                .append(Component.literal(" - Browse sessions").withStyle(ChatFormatting.GRAY)));
         source.sendSystemMessage(Component.literal("/oc session use <#>").withStyle(ChatFormatting.GREEN)
                 .append(Component.literal(" - Switch session by number").withStyle(ChatFormatting.GRAY)));
         source.sendSystemMessage(Component.literal("/oc cancel").withStyle(ChatFormatting.GREEN)
                 .append(Component.literal(" - Cancel generation").withStyle(ChatFormatting.GRAY)));
         source.sendSystemMessage(Component.literal("/oc pause").withStyle(ChatFormatting.GREEN)
                 .append(Component.literal(" - Toggle pause control").withStyle(ChatFormatting.GRAY)));
+        source.sendSystemMessage(Component.literal("/oc perf").withStyle(ChatFormatting.GREEN)
+                .append(Component.literal(" - Show mod frame time").withStyle(ChatFormatting.GRAY)));
+        source.sendSystemMessage(Component.literal("/oc search <terms>").withStyle(ChatFormatting.GREEN)
+                .append(Component.literal(" - Search session messages").withStyle(ChatFormatting.GRAY)));
         source.sendSystemMessage(Component.literal("/oc help").withStyle(ChatFormatting.GREEN)
                 .append(Component.literal(" - Show this help").withStyle(ChatFormatting.GRAY)));
 
@@ -222,21 +241,64 @@ public class OpenCodeCommand {
         return 1;
     }
 
-    private static int executeSessionNew(CommandContext<CommandSourceStack> context) {
+    private static int executePerf(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        FrameBudget budget = OpenCodeMod.getFrameBudget();
+
+        source.sendSystemMessage(Component.literal("=== OpenCode Frame Time (max, last ~5s) ===").withStyle(ChatFormatting.AQUA, ChatFormatting.BOLD));
+
+        for (Subsystem subsystem : Subsystem.values()) {
+            source.sendSystemMessage(Component.literal(subsystem.getDisplayName() + ": ").withStyle(ChatFormatting.GRAY)
+                    .append(Component.literal(formatMicros(budget.getMaxFrameNanos(subsystem)) + "/frame, "
+                            + formatMicros(budget.getMaxTickNanos(subsystem)) + "/tick").withStyle(ChatFormatting.WHITE)));
+        }
+
+        source.sendSystemMessage(Component.literal("Total: ").withStyle(ChatFormatting.GRAY)
+                .append(Component.literal(formatMicros(budget.getMaxFrameTotalNanos()) + " of "
+                        + formatMicros(budget.getBudgetNanos()) + " budget (" + budget.getBudgetPercent() + "% of "
+                        + formatMicros(budget.getAverageFrameNanos()) + " frame)").withStyle(ChatFormatting.GOLD)));
+        source.sendSystemMessage(Component.literal("Deferred: ").withStyle(ChatFormatting.GRAY)
+                .append(Component.literal(budget.getDeferredCount() + " total, " + budget.getPendingCount() + " pending")
+                        .withStyle(ChatFormatting.WHITE)));
+
+        StatusDebouncer debouncer = OpenCodeMod.getClient().getStatusDebouncer();
+        source.sendSystemMessage(Component.literal("Status flips suppressed: ").withStyle(ChatFormatting.GRAY)
+                .append(Component.literal(debouncer.getSuppressedIdleCount() + " idle, "
+                        + debouncer.getSuppressedBusyCount() + " busy, "
+                        + debouncer.getCommittedCount() + " committed").withStyle(ChatFormatting.WHITE)));
+
+        return 1;
+    }
+
+    private static int executeSearch(CommandContext<CommandSourceStack> context) {
         CommandSourceStack source = context.getSource();
         OpenCodeClient client = OpenCodeMod.getClient();
+        String terms = StringArgumentType.getString(context, "terms");
 
-        if (!client.isReady()) {
-            source.sendFailure(Component.literal("Not connected to OpenCode server"));
+        SessionInfo session = client.getCurrentSession();
+        if (session == null) {
+            source.sendFailure(Component.literal("No active session"));
             return 0;
         }
 
-        source.sendSystemMessage(Component.literal("Creating new session...").withStyle(ChatFormatting.GRAY));
+        client.getLoadedSearchIndex(session.getId())
+                .thenAccept(index -> {
+                    long start = System.nanoTime();
+                    List<String> hits = index.search(terms);
+                    long nanos = System.nanoTime() - start;
 
-        client.createSession()
-                .thenAccept(session -> {
-                    source.sendSystemMessage(Component.literal("Created session: ")
-                            .append(Component.literal(session.getId()).withStyle(ChatFormatting.GREEN)));
+                    source.sendSystemMessage(Component.literal("=== Search: " + terms + " ===").withStyle(ChatFormatting.AQUA, ChatFormatting.BOLD));
+                    source.sendSystemMessage(Component.literal(hits.size() + " matching parts in " + formatMicros(nanos)
+                            + " (" + index.getDocumentCount() + " indexed)").withStyle(ChatFormatting.GRAY));
+
+                    // Newest matches last, closest to the input line
+                    for (String partId : hits.subList(Math.max(0, hits.size() - SEARCH_RESULTS), hits.size())) {
+                        source.sendSystemMessage(Component.literal("- ").withStyle(ChatFormatting.GREEN)
+                                .append(Component.literal(index.snippet(partId, terms, 80)).withStyle(ChatFormatting.WHITE)));
+                    }
+                    if (!hits.isEmpty()) {
+                        source.sendSystemMessage(Component.literal("Use Ctrl+F in /oc gui to jump to matches").withStyle(ChatFormatting.GRAY));
+                    }
                 })
                 .exceptionally(e -> {
                     source.sendFailure(Component.literal("Failed: " + e.getMessage()));
@@ -246,7 +308,11 @@ public class OpenCodeCommand {
         return 1;
     }
 
-    private static int executeSessionList(CommandContext<CommandSourceStack> context) {
+    private static String formatMicros(long nanos) {
+        return (nanos / 1000) + "us";
+    }
+
+    private static int executeSessionNew(CommandContext<CommandSourceStack> context) {
         CommandSourceStack source = context.getSource();
         OpenCodeClient client = OpenCodeMod.getClient();
 
@@ -255,27 +321,12 @@ public class OpenCodeCommand {
             return 0;
         }
 
-        client.listSessions()
-                .thenAccept(sessions -> {
-                    if (sessions.isEmpty()) {
-                        cachedSessions.clear();
-                        source.sendSystemMessage(Component.literal("No sessions found").withStyle(ChatFormatting.YELLOW));
-                        return;
-                    }
-
-                    // Cache sessions for use with /oc session use <number>
-                    cachedSessions = new ArrayList<>(sessions);
-
-                    source.sendSystemMessage(Component.literal("=== Sessions ===").withStyle(ChatFormatting.AQUA, ChatFormatting.BOLD));
-                    source.sendSystemMessage(Component.literal("Use /oc session use <number> to switch").withStyle(ChatFormatting.GRAY));
+        source.sendSystemMessage(Component.literal("Creating new session...").withStyle(ChatFormatting.GRAY));
 
-                    for (int i = 0; i < sessions.size(); i++) {
-                        SessionInfo session = sessions.get(i);
-                        String current = client.getCurrentSession() != null &&
-                                client.getCurrentSession().getId().equals(session.getId()) ? " (current)" : "";
-                        source.sendSystemMessage(Component.literal((i + 1) + ". ").withStyle(ChatFormatting.GREEN)
-                                .append(Component.literal(session.getTitle() + current).withStyle(ChatFormatting.WHITE)));
-                    }
+        client.createSession()
+                .thenAccept(session -> {
+                    source.sendSystemMessage(Component.literal("Created session: ")
+                            .append(Component.literal(session.getId()).withStyle(ChatFormatting.GREEN)));
                 })
                 .exceptionally(e -> {
                     source.sendFailure(Component.literal("Failed: " + e.getMessage()));
@@ -285,6 +336,19 @@ public class OpenCodeCommand {
         return 1;
     }
 
+    private static int executeSessionList(CommandContext<CommandSourceStack> context) {
+        if (!OpenCodeMod.getClient().isReady()) {
+            context.getSource().sendFailure(Component.literal("Not connected to OpenCode server"));
+            return 0;
+        }
+
+        // Open session browser on client thread
+        Minecraft.getInstance().execute(() -> {
+            Minecraft.getInstance().setScreen(new SessionBrowserScreen());
+        });
+        return 1;
+    }
+
     private static int executeSessionUse(CommandContext<CommandSourceStack> context) {
         CommandSourceStack source = context.getSource();
         OpenCodeClient client = OpenCodeMod.getClient();
@@ -295,20 +359,8 @@ public class OpenCodeCommand {
             return 0;
         }
 
-        // Check if input is a number (reference to cached session list)
-        // If it's a valid number in range, use cached session; otherwise treat as session ID
-        String sessionId = sessionIdOrNumber;
-        try {
-            int index = Integer.parseInt(sessionIdOrNumber);
-            if (!cachedSessions.isEmpty() && index >= 1 && index <= cachedSessions.size()) {
-                sessionId = cachedSessions.get(index - 1).getId();
-            }
-            // If cache is empty or out of range, fall through and use as-is (let server validate)
-        } catch (NumberFormatException e) {
-            // Not a number, treat as session ID
-        }
-
-        final String finalSessionId = sessionId;
+        // A list number, an ID prefix or a full ID
+        final String finalSessionId = client.getSessionIndex().resolve(sessionIdOrNumber);
         client.useSession(finalSessionId)
                 .thenAccept(session -> {
                     source.sendSystemMessage(Component.literal("Switched to session: ")
@@ -326,10 +378,10 @@ public class OpenCodeCommand {
         CommandSourceStack source = context.getSource();
         String url = StringArgumentType.getString(context, "url");
 
-        OpenCodeMod.getConfigManager().setServerUrl(url);
         source.sendSystemMessage(Component.literal("Server URL set to: ")
                 .append(Component.literal(url).withStyle(ChatFormatting.GREEN)));
-        source.sendSystemMessage(Component.literal("Restart the game to apply changes").withStyle(ChatFormatting.YELLOW));
+        // Applied right away, the client reconnects with the new setting
+        OpenCodeMod.getConfigManager().setServerUrl(url);
 
         return 1;
     }
@@ -338,10 +390,10 @@ public class OpenCodeCommand {
         CommandSourceStack source = context.getSource();
         String path = StringArgumentType.getString(context, "path");
 
-        OpenCodeMod.getConfigManager().setWorkingDirectory(path);
         source.sendSystemMessage(Component.literal("Working directory set to: ")
                 .append(Component.literal(path).withStyle(ChatFormatting.GREEN)));
-        source.sendSystemMessage(Component.literal("Restart the game to apply changes").withStyle(ChatFormatting.YELLOW));
+        // Applied right away, the client reconnects with the new setting
+        OpenCodeMod.getConfigManager().setWorkingDirectory(path);
 
         return 1;
     }
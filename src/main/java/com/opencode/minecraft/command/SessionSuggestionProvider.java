@@ -0,0 +1,53 @@
+package com.opencode.minecraft.command;
+
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.client.OpenCodeClient;
+import com.opencode.minecraft.client.session.SessionIndex;
+import com.opencode.minecraft.client.session.SessionInfo;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.network.chat.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Suggests sessions for /oc session use: list numbers, ID prefixes and fuzzy title matches.
+ * Suggestions come from the {@link SessionIndex} cache and complete immediately; a stale
+ * cache refreshes in the background and shows up in the next keystroke's suggestions.
+ */
+class SessionSuggestionProvider implements SuggestionProvider<CommandSourceStack> {
+    private static final int MAX_SUGGESTIONS = 20;
+
+    @Override
+    public CompletableFuture<Suggestions> getSuggestions(CommandContext<CommandSourceStack> context, SuggestionsBuilder builder) {
+        OpenCodeClient client = OpenCodeMod.getClient();
+        if (client == null) return Suggestions.empty();
+
+        SessionIndex index = client.getSessionIndex();
+        List<SessionInfo> sessions = index.getSessions();
+        String remaining = builder.getRemaining();
+
+        // List numbers, with the title as tooltip
+        if (remaining.isEmpty() || remaining.chars().allMatch(Character::isDigit)) {
+            int suggested = 0;
+            for (int i = 0; i < sessions.size() && suggested < MAX_SUGGESTIONS; i++) {
+                String number = String.valueOf(i + 1);
+                if (number.startsWith(remaining)) {
+                    builder.suggest(i + 1, Component.literal(sessions.get(i).getTitle()));
+                    suggested++;
+                }
+            }
+            if (remaining.isEmpty()) return builder.buildFuture();
+        }
+
+        // IDs by prefix and by title
+        for (SessionInfo session : index.match(remaining, MAX_SUGGESTIONS)) {
+            builder.suggest(session.getId(), Component.literal(session.getTitle()));
+        }
+        return builder.buildFuture();
+    }
+}
@@ -2,39 +2,85 @@ package com.opencode.minecraft.config;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.opencode.minecraft.OpenCodeMod;
+import net.minecraft.client.Minecraft;
 import net.neoforged.fml.loading.FMLPaths;
 
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Manages loading and saving of mod configuration.
+ *
+ * Saves are write-behind: changes are coalesced and written shortly after on a background
+ * thread, through a temp file that is atomically moved over the config, so a crash never
+ * leaves a half-written file. The config file is watched, and external edits are reloaded
+ * and passed to the change listeners on the client thread.
  */
 public class ConfigManager {
     private static final String CONFIG_FILE = "opencode.json";
+    private static final String TEMP_FILE = CONFIG_FILE + ".tmp";
+
+    // Coalesce bursts of changes, and wait for editors to finish writing
+    private static final long SAVE_DELAY_MS = 500;
+    private static final long RELOAD_DELAY_MS = 250;
+
     private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
     private final Path configPath;
-    private ModConfig config;
+    private volatile ModConfig config;
+
+    private final List<Consumer<ModConfig>> changeListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService io = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "OpenCode config");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // IO thread only
+    private ScheduledFuture<?> pendingSave;
+    private ScheduledFuture<?> pendingReload;
+    private String lastWritten;
 
     public ConfigManager() {
         this.configPath = FMLPaths.CONFIGDIR.get().resolve(CONFIG_FILE);
         this.config = new ModConfig();
         // Set default working directory to Minecraft config directory
         this.config.workingDirectory = FMLPaths.CONFIGDIR.get().toString();
+
+        // Write out anything still pending when the game exits
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "OpenCode config flush"));
     }
 
     /**
-     * Loads configuration from file
+     * Loads configuration from file and starts watching it for external edits
      */
     public void load() {
         if (Files.exists(configPath)) {
             try {
                 String json = Files.readString(configPath);
-                config = gson.fromJson(json, ModConfig.class);
+                ModConfig loaded = gson.fromJson(json, ModConfig.class);
+                if (loaded != null) {
+                    config = loaded;
+                }
+                io.execute(() -> lastWritten = json);
                 OpenCodeMod.LOGGER.info("Loaded config from {}", configPath);
-            } catch (IOException e) {
+            } catch (IOException | JsonParseException e) {
                 OpenCodeMod.LOGGER.error("Failed to load config", e);
                 config = new ModConfig();
             }
@@ -42,21 +88,136 @@ public class ConfigManager {
             // Save default config
             save();
         }
+        startWatcher();
     }
 
     /**
-     * Saves configuration to file
+     * Schedules the configuration to be written. Safe to call from any thread; calls in
+     * quick succession result in a single write of the latest state.
      */
     public void save() {
+        io.execute(() -> {
+            if (pendingSave == null || pendingSave.isDone()) {
+                pendingSave = io.schedule(this::write, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /**
+     * Writes a pending save immediately
+     */
+    public void flush() {
+        try {
+            io.submit(() -> {
+                if (pendingSave != null && pendingSave.cancel(false)) {
+                    write();
+                }
+            }).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            OpenCodeMod.LOGGER.warn("Failed to flush config: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the config to a temp file and moves it into place. IO thread only.
+     */
+    private void write() {
+        String json = gson.toJson(config);
+        if (json.equals(lastWritten)) return;
+
+        Path tempPath = configPath.resolveSibling(TEMP_FILE);
         try {
             Files.createDirectories(configPath.getParent());
-            Files.writeString(configPath, gson.toJson(config));
+            Files.writeString(tempPath, json);
+            try {
+                Files.move(tempPath, configPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, configPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            lastWritten = json;
             OpenCodeMod.LOGGER.debug("Saved config to {}", configPath);
         } catch (IOException e) {
             OpenCodeMod.LOGGER.error("Failed to save config", e);
         }
     }
 
+    private void startWatcher() {
+        Thread watcher = new Thread(this::watch, "OpenCode config watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch() {
+        Path directory = configPath.getParent();
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path changed && changed.toString().equals(CONFIG_FILE)) {
+                        io.execute(this::scheduleReload);
+                    }
+                }
+                if (!key.reset()) break;
+            }
+        } catch (IOException e) {
+            OpenCodeMod.LOGGER.warn("Could not watch {} for changes: {}", configPath, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void scheduleReload() {
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        pendingReload = io.schedule(this::reload, RELOAD_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads an externally edited config file. IO thread only.
+     */
+    private void reload() {
+        String json;
+        ModConfig loaded;
+        try {
+            json = Files.readString(configPath);
+            // Our own write, or an edit that changed nothing
+            if (json.equals(lastWritten)) return;
+            loaded = gson.fromJson(json, ModConfig.class);
+        } catch (IOException | JsonParseException e) {
+            // Possibly still being edited, keep the current config
+            OpenCodeMod.LOGGER.warn("Ignoring unreadable config change: {}", e.getMessage());
+            return;
+        }
+        if (loaded == null) return;
+
+        lastWritten = json;
+        OpenCodeMod.LOGGER.info("Reloaded config from {}", configPath);
+        Minecraft.getInstance().execute(() -> {
+            config = loaded;
+            notifyChanged();
+        });
+    }
+
+    /**
+     * Adds a listener called on the client thread when settings change at runtime,
+     * either through a command or an edit of the config file
+     */
+    public void addChangeListener(Consumer<ModConfig> listener) {
+        changeListeners.add(listener);
+    }
+
+    private void notifyChanged() {
+        for (Consumer<ModConfig> listener : changeListeners) {
+            try {
+                listener.accept(config);
+            } catch (Exception e) {
+                OpenCodeMod.LOGGER.error("Error applying config change", e);
+            }
+        }
+    }
+
     public ModConfig getConfig() {
         return config;
     }
@@ -64,11 +225,13 @@ public class ConfigManager {
     public void setServerUrl(String url) {
         config.serverUrl = url;
         save();
+        notifyChanged();
     }
 
     public void setWorkingDirectory(String directory) {
         config.workingDirectory = directory;
         save();
+        notifyChanged();
     }
 
     public void setLastSessionId(String sessionId) {
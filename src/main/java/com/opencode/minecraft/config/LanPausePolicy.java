@@ -0,0 +1,21 @@
+package com.opencode.minecraft.config;
+
+/**
+ * How the integrated server combines the session states of players on a LAN-opened world.
+ */
+public enum LanPausePolicy {
+    /**
+     * Pause the world as soon as any player's agent is idle
+     */
+    ANY_IDLE,
+
+    /**
+     * Pause the world only once every connected player's agent is idle
+     */
+    ALL_IDLE,
+
+    /**
+     * Never pause the world; idle players are frozen individually and made invulnerable
+     */
+    PER_PLAYER
+}
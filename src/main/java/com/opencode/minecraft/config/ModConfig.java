@@ -30,7 +30,7 @@ public class ModConfig {
     public int reconnectIntervalMs = 5000;
 
     /**
-     * Whether to show status in action bar
+     * Whether to show the HUD status bar (status, tokens/sec, queued events, running tool)
      */
     public boolean showStatusBar = true;
 
@@ -38,4 +38,81 @@ public class ModConfig {
      * Whether the pause controller is enabled
      */
     public boolean pauseEnabled = true;
+
+    /**
+     * How the world is paused: FREEZE (tick freeze), HALT (cancel server ticks)
+     * or PROPORTIONAL (tick rate follows agent activity)
+     */
+    public PauseMode pauseMode = PauseMode.FREEZE;
+
+    /**
+     * How players' session states are combined when the world is open to LAN
+     */
+    public LanPausePolicy lanPausePolicy = LanPausePolicy.ALL_IDLE;
+
+    /**
+     * Share of each frame (in percent of the average frame time) the mod may use
+     * before non-critical work is deferred to later frames
+     */
+    public int frameBudgetPercent = 10;
+
+    /**
+     * Whether to emit Java Flight Recorder events for the event pipeline
+     */
+    public boolean jfrEventsEnabled = false;
+
+    /**
+     * Whether to park the server and lower the frame rate while paused
+     */
+    public boolean lowPowerIdle = true;
+
+    /**
+     * Frame rate cap while paused with only the pause overlay showing
+     */
+    public int idleFrameRateLimit = 10;
+
+    /**
+     * Whether to run deferred world maintenance (chunk flush, pre-generation, saves) while paused
+     */
+    public boolean pauseMaintenance = true;
+
+    /**
+     * Radius in chunks to pre-generate around players while paused (0 to disable)
+     */
+    public int pregenRadius = 8;
+
+    /**
+     * Lowest tick rate used in PROPORTIONAL pause mode
+     */
+    public float minTickRate = 2.0f;
+
+    /**
+     * Highest tick rate used in PROPORTIONAL pause mode
+     */
+    public float maxTickRate = 20.0f;
+
+    /**
+     * Maximum change of the tick rate per second in PROPORTIONAL pause mode
+     */
+    public float tickRateRampPerSecond = 10.0f;
+
+    /**
+     * How long an idle status must hold before it pauses the game (filters idle/busy flips between steps)
+     */
+    public int statusIdleHoldMs = 400;
+
+    /**
+     * How long a busy status must hold before it resumes the game
+     */
+    public int statusBusyHoldMs = 0;
+
+    /**
+     * Wrapped lines the OpenCode terminal keeps in memory; older messages are compressed
+     */
+    public int transcriptMaxLines = 2000;
+
+    /**
+     * Whether to stream assistant text into chat as well, as one live entry per part updated in place
+     */
+    public boolean chatStreaming = false;
 }
@@ -0,0 +1,24 @@
+package com.opencode.minecraft.config;
+
+/**
+ * How the integrated server is paused while OpenCode is idle.
+ */
+public enum PauseMode {
+    /**
+     * Freeze the world with vanilla's tick freeze: entities and blocks stop,
+     * but chunk I/O, lighting and networking keep running so resuming is instant.
+     */
+    FREEZE,
+
+    /**
+     * Cancel the whole server tick (original behaviour).
+     * Allows the server thread to sleep in low-power idle mode.
+     */
+    HALT,
+
+    /**
+     * Never stop the world; scale the tick rate smoothly with agent activity
+     * (token rate, running tool calls, time since the last delta).
+     */
+    PROPORTIONAL
+}
@@ -0,0 +1,53 @@
+package com.opencode.minecraft.game;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.gui.Font;
+import net.minecraft.network.chat.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Styled HUD text with its measured width, shared by the pause overlay and the status bar.
+ *
+ * Text widths do not depend on the window size (they are in GUI-scaled units), so entries
+ * stay valid across resizes; only positions have to be recomputed. Client-thread only.
+ */
+public class HudTextCache {
+    private static final int MAX_ENTRIES = 64;
+
+    private static final Map<String, Text> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Text> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Gets the styled component and width for a string, measuring it only the first time
+     */
+    public static Text get(Font font, String text, ChatFormatting... style) {
+        String key = style.length == 0 ? text : keyFor(text, style);
+        Text cached = CACHE.get(key);
+        if (cached == null) {
+            Component component = Component.literal(text).withStyle(style);
+            cached = new Text(component, font.width(component));
+            CACHE.put(key, cached);
+        }
+        return cached;
+    }
+
+    private static String keyFor(String text, ChatFormatting[] style) {
+        StringBuilder key = new StringBuilder(text.length() + style.length * 3).append(text);
+        for (ChatFormatting formatting : style) {
+            key.append('\u0000').append(formatting.ordinal());
+        }
+        return key.toString();
+    }
+
+    /**
+     * A styled component and its width in GUI-scaled pixels
+     */
+    public record Text(Component component, int width) {
+    }
+}
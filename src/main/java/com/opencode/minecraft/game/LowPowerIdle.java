@@ -0,0 +1,110 @@
+package com.opencode.minecraft.game;
+
+import com.opencode.minecraft.config.ModConfig;
+import net.minecraft.client.Minecraft;
+import net.minecraft.server.MinecraftServer;
+import org.lwjgl.glfw.GLFW;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Low-power mode while the game is paused by OpenCode.
+ *
+ * - The integrated server thread parks instead of spinning through cancelled ticks
+ *   (HALT pause mode only, a frozen world keeps ticking its chunks and connections).
+ * - The client drops to a low frame cap while only the pause overlay is visible.
+ *
+ * Both wake immediately when the pause snapshot changes (e.g. on a session.status event).
+ */
+public class LowPowerIdle {
+    // Longest the server thread parks in one go, so queued server tasks and shutdown still get handled
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final PauseController pauseController;
+    private volatile boolean enabled;
+    private volatile int frameRateLimit;
+
+    private volatile Thread parkedServerThread = null;
+    private volatile boolean clientWaiting = false;
+
+    public LowPowerIdle(PauseController pauseController, ModConfig config) {
+        this.pauseController = pauseController;
+        applyConfig(config);
+        pauseController.addChangeListener(snapshot -> wake());
+    }
+
+    public void applyConfig(ModConfig config) {
+        this.enabled = config.lowPowerIdle;
+        this.frameRateLimit = Math.max(1, config.idleFrameRateLimit);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getFrameRateLimit() {
+        return frameRateLimit;
+    }
+
+    /**
+     * Parks the calling server thread while the game stays paused.
+     * Returns after at most {@link #MAX_PARK_NANOS}, or as soon as the pause ends or the server stops.
+     */
+    public void parkServerThread(MinecraftServer server) {
+        long deadline = System.nanoTime() + MAX_PARK_NANOS;
+        parkedServerThread = Thread.currentThread();
+        try {
+            while (pauseController.shouldGameBePaused() && server.isRunning()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) break;
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            parkedServerThread = null;
+        }
+    }
+
+    /**
+     * Returns true if the client should render at the low idle frame rate.
+     * Only when paused with no screen open, i.e. just the overlay is showing.
+     */
+    public boolean isThrottlingClient() {
+        return enabled
+                && pauseController.shouldGameBePaused()
+                && Minecraft.getInstance().screen == null;
+    }
+
+    /**
+     * Replacement for the vanilla frame limiter while throttled. Waits for the next
+     * frame at the idle rate, but returns early once throttling ends.
+     *
+     * @return the GLFW time the wait ended at
+     */
+    public double waitForNextFrame(double lastDrawTime, int fps) {
+        double deadline = lastDrawTime + 1.0 / fps;
+        clientWaiting = true;
+        try {
+            double now;
+            for (now = GLFW.glfwGetTime(); now < deadline && isThrottlingClient(); now = GLFW.glfwGetTime()) {
+                GLFW.glfwWaitEventsTimeout(deadline - now);
+            }
+            return now;
+        } finally {
+            clientWaiting = false;
+        }
+    }
+
+    /**
+     * Wakes a parked server thread and a waiting client frame
+     */
+    public void wake() {
+        Thread thread = parkedServerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        if (clientWaiting) {
+            GLFW.glfwPostEmptyEvent();
+        }
+    }
+}
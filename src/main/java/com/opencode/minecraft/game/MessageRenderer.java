@@ -1,61 +1,218 @@
 package com.opencode.minecraft.game;
 
+import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.mixin.ChatComponentAccessor;
+import com.opencode.minecraft.perf.FrameBudget;
+import com.opencode.minecraft.perf.Subsystem;
 import com.opencode.minecraft.util.MarkdownToMinecraft;
 import net.minecraft.ChatFormatting;
+import net.minecraft.client.GuiMessage;
+import net.minecraft.client.GuiMessageTag;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.components.ChatComponent;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Renders OpenCode messages in Minecraft chat.
+ *
+ * Streamed assistant text gets one live chat entry per part. Deltas only append to a buffer;
+ * every few client ticks the entry is rebuilt and replaced in place, so chat re-wraps one
+ * message instead of scrolling a new one in per flush. The entry is finalized with the full
+ * text when the part completes.
+ *
+ * Tool calls work the same way: one line per call ID whose status is updated in place. When
+ * the step finishes, its successful call lines are rolled up into a single summary line.
  */
 public class MessageRenderer {
-    private StringBuilder currentMessage = new StringBuilder();
-    private boolean messageInProgress = false;
-    private long lastUpdateTime = 0;
+    // Update live entries every 2 ticks (100ms)
+    private static final int STREAM_UPDATE_TICKS = 2;
+    private static final int STREAM_INDICATOR_COLOR = 0x55FFFF;
+    private static final int TOOL_INDICATOR_COLOR = 0xAA00AA;
 
-    // Flush accumulated text every 100ms for smoother output
-    private static final long FLUSH_INTERVAL_MS = 100;
+    // Live chat entries of streaming text parts, keyed by part ID
+    private final Map<String, LiveEntry> liveEntries = new LinkedHashMap<>();
+    // Tool call lines of the current step, keyed by call ID
+    private final Map<String, ToolLine> toolLines = new LinkedHashMap<>();
+    private int ticksSinceUpdate = 0;
 
     /**
-     * Starts a new assistant message
+     * Appends a streamed delta to the live chat entry of a text part
      */
-    public void startNewMessage() {
-        flushCurrentMessage();
-        currentMessage = new StringBuilder();
-        messageInProgress = true;
+    public void appendDelta(String partId, String delta) {
+        LiveEntry entry = liveEntries.computeIfAbsent(partId, id -> new LiveEntry());
+        entry.text.append(delta);
+        entry.dirty = true;
     }
 
     /**
-     * Appends a delta (token) to the current message
+     * Finalizes a part's live entry with its complete text. Does nothing for parts that
+     * were never streamed.
      */
-    public void appendDelta(String delta) {
-        currentMessage.append(delta);
+    public void completePart(String partId, String text) {
+        LiveEntry entry = liveEntries.remove(partId);
+        if (entry == null) return;
 
-        long now = System.currentTimeMillis();
-        if (now - lastUpdateTime > FLUSH_INTERVAL_MS) {
-            flushCurrentMessage();
-            lastUpdateTime = now;
+        if (text != null && !text.contentEquals(entry.text)) {
+            entry.replaceText(text);
         }
+        finish(entry);
     }
 
     /**
-     * Flushes the current message buffer to chat
+     * Finalizes every live entry and the current step, called when the response is complete
      */
-    public void flushCurrentMessage() {
-        if (currentMessage.length() > 0) {
-            String text = currentMessage.toString();
-            currentMessage = new StringBuilder();
+    public void completeAll() {
+        for (LiveEntry entry : liveEntries.values()) {
+            finish(entry);
+        }
+        liveEntries.clear();
+        finishStep();
+    }
 
-            // Split into lines and render each
-            String[] lines = text.split("\n");
-            for (String line : lines) {
-                if (!line.isEmpty()) {
-                    sendAssistantMessage(line);
-                }
+    /**
+     * Records a tool call's status. Repeated updates with the same status are dropped;
+     * a changed status is shown on the call's line with the next update.
+     */
+    public void updateTool(String callId, String toolName, String status) {
+        if (callId == null) {
+            sendToolMessage(toolName, status);
+            return;
+        }
+
+        ToolLine line = toolLines.computeIfAbsent(callId, id -> new ToolLine(toolName));
+        if (status.equals(line.status)) return;
+        line.status = status;
+        line.dirty = true;
+    }
+
+    /**
+     * Rolls the current step's tool calls up into one summary line, e.g.
+     * "12 reads, 3 edits, 1 bash". Failed calls keep their own line.
+     */
+    public void finishStep() {
+        if (toolLines.isEmpty()) return;
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        Set<GuiMessageTag> rolledUp = Collections.newSetFromMap(new IdentityHashMap<>());
+        int failed = 0;
+        for (ToolLine line : toolLines.values()) {
+            OpenCodeMod.getFrameBudget().flush(line);
+            if (line.isFailed()) {
+                failed++;
+                if (line.dirty) updateTimed(line);
+            } else {
+                counts.merge(line.toolName, 1, Integer::sum);
+                rolledUp.add(line.tag);
+            }
+        }
+        toolLines.clear();
+
+        FrameBudget budget = OpenCodeMod.getFrameBudget();
+        long start = budget.begin();
+        try {
+            removeFromChat(rolledUp);
+            sendToolSummary(counts, failed);
+        } finally {
+            budget.end(Subsystem.CHAT, start);
+        }
+    }
+
+    /**
+     * Called every client tick to push buffered text and tool status to the live lines
+     */
+    public void tick() {
+        if (liveEntries.isEmpty() && toolLines.isEmpty()) return;
+        if (++ticksSinceUpdate < STREAM_UPDATE_TICKS) return;
+        ticksSinceUpdate = 0;
+
+        scheduleUpdates(liveEntries.values());
+        scheduleUpdates(toolLines.values());
+    }
+
+    private void scheduleUpdates(Collection<? extends LiveLine> lines) {
+        FrameBudget budget = OpenCodeMod.getFrameBudget();
+        for (LiveLine line : lines) {
+            if (!line.dirty) continue;
+            // Re-wrapping chat can slip to a later frame if this one is busy
+            budget.runOrDefer(line, () -> updateTimed(line));
+        }
+    }
+
+    private void finish(LiveEntry entry) {
+        // Whatever is pending for the entry is superseded by the final update
+        OpenCodeMod.getFrameBudget().flush(entry);
+        if (entry.dirty) {
+            updateTimed(entry);
+        }
+    }
+
+    private void updateTimed(LiveLine line) {
+        FrameBudget budget = OpenCodeMod.getFrameBudget();
+        long start = budget.begin();
+        try {
+            update(line);
+        } finally {
+            budget.end(Subsystem.CHAT, start);
+        }
+    }
+
+    /**
+     * Replaces the line's chat message with its current content, or adds it on first use
+     */
+    private void update(LiveLine entry) {
+        entry.dirty = false;
+        Minecraft client = Minecraft.getInstance();
+        if (client.player == null) return;
+
+        Component content = entry.render();
+        ChatComponent chat = client.gui.getChat();
+        ChatComponentAccessor accessor = (ChatComponentAccessor) chat;
+        List<GuiMessage> messages = accessor.opencode$getAllMessages();
+
+        int index = -1;
+        for (int i = 0; i < messages.size(); i++) {
+            if (messages.get(i).tag() == entry.tag) {
+                index = i;
+                break;
             }
         }
-        messageInProgress = false;
+        if (index < 0) {
+            // Not shown yet, or already scrolled out of the chat history
+            chat.addMessage(content, null, entry.tag);
+            return;
+        }
+
+        messages.set(index, new GuiMessage(messages.get(index).addedTime(), content, null, entry.tag));
+        if (index == 0) {
+            // Newest message: only its own wrapped lines need replacing
+            accessor.opencode$getTrimmedMessages().removeIf(line -> line.tag() == entry.tag);
+            accessor.opencode$addMessageToDisplayQueue(messages.get(0));
+        } else {
+            accessor.opencode$refreshTrimmedMessages();
+        }
+    }
+
+    /**
+     * Removes the messages with the given tags from chat
+     */
+    private void removeFromChat(Set<GuiMessageTag> tags) {
+        Minecraft client = Minecraft.getInstance();
+        if (tags.isEmpty() || client.player == null) return;
+
+        ChatComponentAccessor accessor = (ChatComponentAccessor) client.gui.getChat();
+        if (accessor.opencode$getAllMessages().removeIf(message -> tags.contains(message.tag()))) {
+            accessor.opencode$refreshTrimmedMessages();
+        }
     }
 
     /**
@@ -131,18 +288,138 @@ public class MessageRenderer {
         Minecraft client = Minecraft.getInstance();
         if (client.player == null) return;
 
+        client.gui.getChat().addMessage(toolComponent(toolName, status));
+    }
+
+    private static MutableComponent toolComponent(String toolName, String status) {
         ChatFormatting statusColor = switch (status) {
             case "running" -> ChatFormatting.YELLOW;
             case "completed" -> ChatFormatting.GREEN;
-            case "failed" -> ChatFormatting.RED;
+            case "failed", "error" -> ChatFormatting.RED;
             default -> ChatFormatting.GRAY;
         };
 
-        MutableComponent message = Component.literal("")
+        return Component.literal("")
                 .append(Component.literal("[Tool] ").withStyle(ChatFormatting.DARK_PURPLE))
                 .append(Component.literal(toolName + ": ").withStyle(ChatFormatting.LIGHT_PURPLE))
                 .append(Component.literal(status).withStyle(statusColor));
+    }
+
+    /**
+     * Sends the summary line of a finished step
+     */
+    private void sendToolSummary(Map<String, Integer> counts, int failed) {
+        Minecraft client = Minecraft.getInstance();
+        if (client.player == null || (counts.isEmpty() && failed == 0)) return;
+
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, Integer> count : counts.entrySet()) {
+            if (summary.length() > 0) summary.append(", ");
+            summary.append(count.getValue()).append(' ').append(plural(count.getKey(), count.getValue()));
+        }
+
+        MutableComponent message = Component.literal("")
+                .append(Component.literal("[Tool] ").withStyle(ChatFormatting.DARK_PURPLE))
+                .append(Component.literal(summary.toString()).withStyle(ChatFormatting.LIGHT_PURPLE));
+        if (failed > 0) {
+            message.append(Component.literal((summary.length() > 0 ? ", " : "") + failed + " failed")
+                    .withStyle(ChatFormatting.RED));
+        }
 
         client.gui.getChat().addMessage(message);
     }
+
+    /**
+     * "read" becomes "reads"; names that don't take a plain s ("bash") stay as they are
+     */
+    private static String plural(String toolName, int count) {
+        if (count == 1 || toolName.endsWith("s") || toolName.endsWith("h") || toolName.endsWith("x")) {
+            return toolName;
+        }
+        return toolName + "s";
+    }
+
+    /**
+     * A chat message that is updated in place. The tag instance identifies the message and
+     * its wrapped lines in chat.
+     */
+    private abstract static class LiveLine {
+        final GuiMessageTag tag;
+        boolean dirty = false;
+
+        LiveLine(int indicatorColor) {
+            this.tag = new GuiMessageTag(indicatorColor, null, null, "OpenCode");
+        }
+
+        abstract Component render();
+    }
+
+    /**
+     * Streaming state of one text part
+     */
+    private static class LiveEntry extends LiveLine {
+        final StringBuilder text = new StringBuilder();
+
+        LiveEntry() {
+            super(STREAM_INDICATOR_COLOR);
+        }
+
+        // Converted lines before the last newline, reused by later updates
+        final List<Component> lines = new ArrayList<>();
+        int convertedUpTo = 0;
+
+        void replaceText(String replacement) {
+            text.setLength(0);
+            text.append(replacement);
+            lines.clear();
+            convertedUpTo = 0;
+            dirty = true;
+        }
+
+        @Override
+        Component render() {
+            int newline;
+            while ((newline = text.indexOf("\n", convertedUpTo)) >= 0) {
+                String line = text.substring(convertedUpTo, newline);
+                if (!line.isEmpty()) {
+                    lines.add(MarkdownToMinecraft.convert(line));
+                }
+                convertedUpTo = newline + 1;
+            }
+
+            MutableComponent message = Component.literal("")
+                    .append(Component.literal("[OpenCode] ").withStyle(ChatFormatting.AQUA));
+            for (int i = 0; i < lines.size(); i++) {
+                if (i > 0) message.append("\n");
+                message.append(lines.get(i));
+            }
+            if (convertedUpTo < text.length()) {
+                if (!lines.isEmpty()) message.append("\n");
+                message.append(MarkdownToMinecraft.convert(text.substring(convertedUpTo)));
+            }
+            return message;
+        }
+    }
+
+    /**
+     * Status line of one tool call
+     */
+    private static class ToolLine extends LiveLine {
+        final String toolName;
+        String status;
+
+        ToolLine(String toolName) {
+            super(TOOL_INDICATOR_COLOR);
+            this.toolName = toolName;
+        }
+
+        boolean isFailed() {
+            return "error".equals(status) || "failed".equals(status);
+        }
+
+        @Override
+        Component render() {
+            return toolComponent(toolName, status);
+        }
+    }
 }
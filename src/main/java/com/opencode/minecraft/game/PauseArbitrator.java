@@ -0,0 +1,148 @@
+package com.opencode.minecraft.game;
+
+import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.config.LanPausePolicy;
+import com.opencode.minecraft.config.ModConfig;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Combines the session states of all players on a LAN-opened world into one pause decision.
+ *
+ * Players report whether their own agent wants the game paused (see SessionStatePayload).
+ * The number of idle players is kept up to date as reports arrive, so the per-tick decision
+ * is O(1). Players that never report (no mod installed) count as busy.
+ *
+ * Idle players whose world keeps running (PER_PLAYER, or ALL_IDLE while someone is busy)
+ * have their input blocked on their own client and are protected from damage here. The
+ * protection is only kept in memory (see {@link #isProtected}), never in the player data,
+ * so a crash or save while protected can't leave a player invulnerable.
+ *
+ * Server-thread only.
+ */
+public class PauseArbitrator {
+    private final Map<UUID, Boolean> idleByPlayer = new HashMap<>();
+    private final Set<UUID> protectedPlayers = new HashSet<>();
+    private int idleCount = 0;
+    private volatile LanPausePolicy policy;
+
+    private MinecraftServer server = null;
+    private boolean worldPaused = false;
+
+    public PauseArbitrator(ModConfig config) {
+        applyConfig(config);
+    }
+
+    public void applyConfig(ModConfig config) {
+        this.policy = config.lanPausePolicy != null ? config.lanPausePolicy : LanPausePolicy.ALL_IDLE;
+    }
+
+    /**
+     * Records a player's session state
+     */
+    public void report(ServerPlayer player, boolean wantsPause) {
+        Boolean previous = idleByPlayer.put(player.getUUID(), wantsPause);
+        if (previous != null && previous == wantsPause) return;
+
+        if (wantsPause) {
+            idleCount++;
+        } else if (previous != null) {
+            idleCount--;
+        }
+        OpenCodeMod.LOGGER.debug("{} is now {} ({} idle)", player.getName().getString(),
+                wantsPause ? "idle" : "busy", idleCount);
+
+        setProtected(player, wantsPause && !worldPaused);
+    }
+
+    /**
+     * Forgets a player that left the server
+     */
+    public void remove(ServerPlayer player) {
+        Boolean previous = idleByPlayer.remove(player.getUUID());
+        if (previous != null && previous) {
+            idleCount--;
+        }
+        setProtected(player, false);
+    }
+
+    /**
+     * Called every server tick while the world is open to LAN.
+     * Returns true if the world should be paused under the current policy.
+     */
+    public boolean tick(MinecraftServer server) {
+        // Reports from before the world was published are kept, see reset
+        this.server = server;
+
+        boolean paused = switch (policy) {
+            case ANY_IDLE -> idleCount > 0;
+            case ALL_IDLE -> idleCount > 0 && idleCount >= server.getPlayerList().getPlayerCount();
+            case PER_PLAYER -> false;
+        };
+
+        if (paused != worldPaused) {
+            worldPaused = paused;
+            refreshProtection();
+        }
+        return paused;
+    }
+
+    /**
+     * Re-applies protection to idle players after the world was paused or resumed
+     */
+    private void refreshProtection() {
+        for (Map.Entry<UUID, Boolean> entry : idleByPlayer.entrySet()) {
+            if (!entry.getValue()) continue;
+
+            ServerPlayer player = server.getPlayerList().getPlayer(entry.getKey());
+            if (player != null) {
+                setProtected(player, !worldPaused);
+            }
+        }
+    }
+
+    private void setProtected(ServerPlayer player, boolean protect) {
+        if (protect) {
+            protectedPlayers.add(player.getUUID());
+        } else {
+            protectedPlayers.remove(player.getUUID());
+        }
+    }
+
+    /**
+     * Returns true if incoming damage to the player should be cancelled
+     */
+    public boolean isProtected(ServerPlayer player) {
+        return protectedPlayers.contains(player.getUUID());
+    }
+
+    /**
+     * Forgets every player's state. Called when a server starts or stops, not when the world
+     * is published: players, the host included, report on join and don't report again
+     * until their state changes.
+     */
+    public void reset() {
+        idleByPlayer.clear();
+        protectedPlayers.clear();
+        idleCount = 0;
+        worldPaused = false;
+        server = null;
+    }
+
+    /**
+     * Gets the number of players whose agent is idle
+     */
+    public int getIdleCount() {
+        return idleCount;
+    }
+
+    public LanPausePolicy getPolicy() {
+        return policy;
+    }
+}
@@ -1,8 +1,15 @@
 package com.opencode.minecraft.game;
 
 import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.client.session.SessionStateMachine;
 import com.opencode.minecraft.client.session.SessionStatus;
-import net.minecraft.client.Minecraft;
+import com.opencode.minecraft.config.PauseMode;
+import com.opencode.minecraft.perf.jfr.JfrEvents;
+import com.opencode.minecraft.perf.jfr.PauseTransitionEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Controls game pause state based on OpenCode session status.
@@ -13,95 +20,153 @@ import net.minecraft.client.Minecraft;
  * - RESUME when session status is BUSY (processing, tool calls, planning)
  * - RESUME when session status is GENERATING (outputting tokens)
  *
- * Status is driven by session.status SSE events from OpenCode server.
+ * Status is read from the shared {@link SessionStateMachine}, which is driven by
+ * session.status SSE events from OpenCode server.
+ *
+ * The decision is recomputed only when an input changes (status, typing, enabled,
+ * world join/leave, grace expiry) and published as an immutable {@link PauseSnapshot}.
+ * Callers on the server thread never touch client objects.
  */
 public class PauseController {
-    private volatile SessionStatus currentStatus = SessionStatus.DISCONNECTED;
+    private final SessionStateMachine stateMachine;
     private volatile boolean userTyping = false;
     private volatile boolean enabled = true;
-    private volatile boolean gameReady = false;
-    private volatile long gameReadyTime = 0;
+    private volatile PauseMode pauseMode = PauseMode.FREEZE;
+
+    // World state, only written from the client thread
+    private volatile boolean pauseSupported = false;
+    private volatile boolean graceExpired = false;
+    private long graceDeadline = 0;
+
+    // The published pause decision, read by the mixins every tick/frame
+    private volatile PauseSnapshot snapshot = PauseSnapshot.INITIAL;
+    private final List<Consumer<PauseSnapshot>> changeListeners = new CopyOnWriteArrayList<>();
 
     // Wait 3 seconds after joining before enabling pause
     private static final long STARTUP_GRACE_PERIOD_MS = 3000;
 
+    public PauseController(SessionStateMachine stateMachine) {
+        this.stateMachine = stateMachine;
+        // Run on the transitioning thread; recompute reads the latest status itself
+        stateMachine.addListener(Runnable::run, this::onStatusTransition);
+    }
+
     /**
      * Called every client tick to update pause state
      */
     public void tick() {
-        // No longer using delta timeout - we rely on session.status events from OpenCode
-        // OpenCode will tell us when it's idle vs busy
+        // Status changes are pushed to us; the only time-based input is the join grace period
+        if (graceDeadline != 0 && System.currentTimeMillis() >= graceDeadline) {
+            graceDeadline = 0;
+            graceExpired = true;
+            recompute();
+        }
     }
 
     /**
      * Determines if the game should currently be paused.
-     * Called from the IntegratedServerMixin.
+     * Called from the mixins on both the client and the integrated server thread,
+     * so this is only a read of the last published snapshot.
      */
     public boolean shouldGameBePaused() {
-        if (!enabled) return false;
-
-        Minecraft client = Minecraft.getInstance();
-        if (client == null || client.level == null) return false;
-
-        // Only pause in singleplayer
-        if (!client.isSingleplayer()) return false;
+        return snapshot.paused();
+    }
 
-        // Don't pause until player is fully in the game
-        if (client.player == null) return false;
+    /**
+     * Gets the last published pause snapshot
+     */
+    public PauseSnapshot getSnapshot() {
+        return snapshot;
+    }
 
-        // Track when game becomes ready
-        if (!gameReady) {
-            gameReady = true;
-            gameReadyTime = System.currentTimeMillis();
+    /**
+     * Called on the client thread once the local player has joined a world.
+     * Pausing is supported in singleplayer and on servers that accept our session state payload.
+     */
+    public void onWorldJoin(boolean supported) {
+        pauseSupported = supported;
+        graceExpired = false;
+        graceDeadline = System.currentTimeMillis() + STARTUP_GRACE_PERIOD_MS;
+        if (supported) {
             OpenCodeMod.LOGGER.info("Game ready, pause will activate in {}ms", STARTUP_GRACE_PERIOD_MS);
         }
-
-        // Grace period after joining - don't pause yet
-        if (System.currentTimeMillis() - gameReadyTime < STARTUP_GRACE_PERIOD_MS) {
-            return false;
-        }
-
-        // Pause if user is typing a prompt
-        if (userTyping) return true;
-
-        // Pause based on session status
-        return currentStatus.shouldPause();
+        recompute();
     }
 
     /**
      * Called when leaving a world to reset the ready state
      */
     public void onWorldUnload() {
-        gameReady = false;
-        gameReadyTime = 0;
+        pauseSupported = false;
+        graceExpired = false;
+        graceDeadline = 0;
+        recompute();
+    }
+
+    private void onStatusTransition(SessionStateMachine.Transition transition) {
+        recordTransition(transition.from().name(), transition.to().name());
+        recompute();
     }
 
     /**
-     * Called when a delta (token) is received from the LLM.
-     * Transitions to GENERATING state to indicate active output.
+     * Sets whether the user is currently typing a prompt
      */
-    public void onDeltaReceived() {
-        if (currentStatus != SessionStatus.GENERATING) {
-            setStatus(SessionStatus.GENERATING);
+    public void setUserTyping(boolean typing) {
+        if (this.userTyping != typing) {
+            this.userTyping = typing;
+            recordTransition(typing ? "NOT_TYPING" : "TYPING", typing ? "TYPING" : "NOT_TYPING");
+            recompute();
         }
     }
 
     /**
-     * Sets the current session status
+     * Rebuilds and publishes the pause snapshot from the current inputs.
+     * Synchronized because status transitions can arrive from HTTP threads.
      */
-    public void setStatus(SessionStatus status) {
-        if (this.currentStatus != status) {
-            SessionStatus oldStatus = this.currentStatus;
-            this.currentStatus = status;
-            OpenCodeMod.LOGGER.debug("Pause controller status: {} -> {}", oldStatus, status);
+    private synchronized void recompute() {
+        SessionStatus currentStatus = stateMachine.get();
+
+        // In proportional mode the world is slowed down instead of ever stopping
+        boolean paused = enabled
+                && pauseMode != PauseMode.PROPORTIONAL
+                && pauseSupported
+                && graceExpired
+                && (userTyping || currentStatus.shouldPause());
+
+        PauseSnapshot previous = snapshot;
+        PauseSnapshot next = new PauseSnapshot(paused, currentStatus, userTyping, enabled);
+        snapshot = next;
+
+        if (previous.paused() != paused) {
+            recordTransition(previous.paused() ? "PAUSED" : "RUNNING", paused ? "PAUSED" : "RUNNING");
+        }
+
+        if (!next.equals(previous)) {
+            for (Consumer<PauseSnapshot> listener : changeListeners) {
+                try {
+                    listener.accept(next);
+                } catch (Exception e) {
+                    OpenCodeMod.LOGGER.error("Error in pause change listener", e);
+                }
+            }
         }
     }
 
     /**
-     * Sets whether the user is currently typing a prompt
+     * Adds a listener notified whenever a new snapshot is published.
+     * May be called from any thread, so listeners must be cheap and thread-safe.
      */
-    public void setUserTyping(boolean typing) {
-        this.userTyping = typing;
+    public void addChangeListener(Consumer<PauseSnapshot> listener) {
+        changeListeners.add(listener);
+    }
+
+    private void recordTransition(String from, String to) {
+        if (JfrEvents.isEnabled()) {
+            PauseTransitionEvent event = new PauseTransitionEvent();
+            event.from = from;
+            event.to = to;
+            event.commit();
+        }
     }
 
     /**
@@ -115,7 +180,7 @@ public class PauseController {
      * Gets the current session status
      */
     public SessionStatus getStatus() {
-        return currentStatus;
+        return stateMachine.get();
     }
 
     /**
@@ -123,6 +188,19 @@ public class PauseController {
      */
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
+        recompute();
+    }
+
+    /**
+     * Sets how the world is paused
+     */
+    public void setPauseMode(PauseMode pauseMode) {
+        this.pauseMode = pauseMode != null ? pauseMode : PauseMode.FREEZE;
+        recompute();
+    }
+
+    public PauseMode getPauseMode() {
+        return pauseMode;
     }
 
     /**
@@ -139,7 +217,7 @@ public class PauseController {
         if (!enabled) return "Disabled";
         if (userTyping) return "Typing (Paused)";
 
-        return switch (currentStatus) {
+        return switch (stateMachine.get()) {
             case DISCONNECTED -> "Disconnected";
             case IDLE -> "Idle (Paused)";
             case BUSY -> "Processing...";
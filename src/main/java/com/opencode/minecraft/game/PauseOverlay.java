@@ -2,24 +2,42 @@ package com.opencode.minecraft.game;
 
 import com.opencode.minecraft.OpenCodeMod;
 import com.opencode.minecraft.client.session.SessionStatus;
+import com.opencode.minecraft.perf.FrameBudget;
+import com.opencode.minecraft.perf.Subsystem;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.Font;
 import net.minecraft.client.gui.GuiGraphics;
-import net.minecraft.network.chat.Component;
 
 /**
  * Renders an overlay when the game is paused by OpenCode.
  */
 public class PauseOverlay {
+    private static final String HINT = "Use /oc <prompt> to give OpenCode a task";
+
+    // Client-thread only, rebuilt when the status or the window size changes
+    private static Layout layout = null;
 
     /**
      * Renders the pause overlay if the game is paused.
      * Called from HUD rendering.
      */
     public static void render(GuiGraphics context, float tickDelta) {
+        FrameBudget budget = OpenCodeMod.getFrameBudget();
+        long start = budget.begin();
+        try {
+            renderOverlay(context);
+        } finally {
+            budget.end(Subsystem.PAUSE_OVERLAY, start);
+        }
+    }
+
+    private static void renderOverlay(GuiGraphics context) {
         PauseController pauseController = OpenCodeMod.getPauseController();
-        if (pauseController == null || !pauseController.shouldGameBePaused()) {
+        if (pauseController == null) return;
+
+        PauseSnapshot snapshot = pauseController.getSnapshot();
+        if (!snapshot.paused()) {
             return;
         }
 
@@ -28,57 +46,26 @@ public class PauseOverlay {
 
         int screenWidth = client.getWindow().getGuiScaledWidth();
         int screenHeight = client.getWindow().getGuiScaledHeight();
-        Font textRenderer = client.font;
+
+        // Text and positions only change with the status or the window size
+        if (layout == null || !layout.matches(snapshot, screenWidth, screenHeight)) {
+            layout = Layout.build(client.font, snapshot, screenWidth, screenHeight);
+        }
 
         // Semi-transparent dark overlay
         int overlayColor = 0x88000000;
         context.fill(0, 0, screenWidth, screenHeight, overlayColor);
 
-        // Main message
-        String mainMessage = getMainMessage(pauseController);
-        String subMessage = getSubMessage(pauseController);
-
-        // Center the text
-        int mainWidth = textRenderer.width(mainMessage);
-        int subWidth = textRenderer.width(subMessage);
-
-        int centerX = screenWidth / 2;
-        int centerY = screenHeight / 2;
-
-        // Draw main message with shadow
-        context.drawString(
-            textRenderer,
-            Component.literal(mainMessage).withStyle(ChatFormatting.GOLD, ChatFormatting.BOLD),
-            centerX - mainWidth / 2,
-            centerY - 20,
-            0xFFFFAA00
-        );
-
-        // Draw sub message
-        context.drawString(
-            textRenderer,
-            Component.literal(subMessage).withStyle(ChatFormatting.GRAY),
-            centerX - subWidth / 2,
-            centerY + 5,
-            0xFFAAAAAA
-        );
-
-        // Draw hint at bottom
-        String hint = "Use /oc <prompt> to give OpenCode a task";
-        int hintWidth = textRenderer.width(hint);
-        context.drawString(
-            textRenderer,
-            Component.literal(hint).withStyle(ChatFormatting.DARK_GRAY, ChatFormatting.ITALIC),
-            centerX - hintWidth / 2,
-            centerY + 30,
-            0xFF666666
-        );
+        // Main message with shadow, sub message and hint at bottom
+        context.drawString(client.font, layout.main.component(), layout.mainX, layout.centerY - 20, 0xFFFFAA00);
+        context.drawString(client.font, layout.sub.component(), layout.subX, layout.centerY + 5, 0xFFAAAAAA);
+        context.drawString(client.font, layout.hint.component(), layout.hintX, layout.centerY + 30, 0xFF666666);
     }
 
-    private static String getMainMessage(PauseController controller) {
-        SessionStatus status = controller.getStatus();
+    private static String getMainMessage(PauseSnapshot snapshot) {
+        SessionStatus status = snapshot.status();
 
-        if (controller.isUserTyping()) {
+        if (snapshot.userTyping()) {
             return "GAME PAUSED - Typing...";
         }
 
@@ -91,10 +78,10 @@ public class PauseOverlay {
         };
     }
 
-    private static String getSubMessage(PauseController controller) {
-        SessionStatus status = controller.getStatus();
+    private static String getSubMessage(PauseSnapshot snapshot) {
+        SessionStatus status = snapshot.status();
 
-        if (controller.isUserTyping()) {
+        if (snapshot.userTyping()) {
             return "Game will resume when OpenCode starts generating";
         }
 
@@ -106,4 +93,30 @@ public class PauseOverlay {
             case RETRY -> "Connection issue, retrying...";
         };
     }
+
+    /**
+     * Measured text and positions for one status and window size
+     */
+    private record Layout(boolean userTyping, SessionStatus status, int screenWidth, int screenHeight,
+                          HudTextCache.Text main, HudTextCache.Text sub, HudTextCache.Text hint,
+                          int mainX, int subX, int hintX, int centerY) {
+
+        static Layout build(Font font, PauseSnapshot snapshot, int screenWidth, int screenHeight) {
+            HudTextCache.Text main = HudTextCache.get(font, getMainMessage(snapshot), ChatFormatting.GOLD, ChatFormatting.BOLD);
+            HudTextCache.Text sub = HudTextCache.get(font, getSubMessage(snapshot), ChatFormatting.GRAY);
+            HudTextCache.Text hint = HudTextCache.get(font, HINT, ChatFormatting.DARK_GRAY, ChatFormatting.ITALIC);
+
+            // Center the text
+            int centerX = screenWidth / 2;
+            return new Layout(snapshot.userTyping(), snapshot.status(), screenWidth, screenHeight,
+                    main, sub, hint,
+                    centerX - main.width() / 2, centerX - sub.width() / 2, centerX - hint.width() / 2,
+                    screenHeight / 2);
+        }
+
+        boolean matches(PauseSnapshot snapshot, int width, int height) {
+            return userTyping == snapshot.userTyping() && status == snapshot.status()
+                    && screenWidth == width && screenHeight == height;
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package com.opencode.minecraft.game;
+
+import com.opencode.minecraft.client.session.SessionStatus;
+
+/**
+ * Immutable view of everything the pause decision depends on.
+ * Published by {@link PauseController} whenever one of its inputs changes,
+ * so hot-path readers only need a single volatile read.
+ */
+public record PauseSnapshot(boolean paused, SessionStatus status, boolean userTyping, boolean enabled) {
+    public static final PauseSnapshot INITIAL = new PauseSnapshot(false, SessionStatus.DISCONNECTED, false, true);
+}
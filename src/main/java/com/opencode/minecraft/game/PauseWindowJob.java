@@ -0,0 +1,42 @@
+package com.opencode.minecraft.game;
+
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * A unit of deferred world maintenance that runs only while the game is paused.
+ * Jobs are split into short steps so they can be interrupted between steps.
+ */
+public interface PauseWindowJob {
+    /**
+     * Name shown in logs
+     */
+    String getName();
+
+    /**
+     * Runs one short step on the server thread.
+     *
+     * @return true once the job is finished
+     */
+    boolean step(MinecraftServer server);
+
+    /**
+     * Returns true while the job waits on work done off the server thread or by the
+     * server's own task loop; the scheduler then ends the slice instead of spinning
+     */
+    default boolean isWaiting() {
+        return false;
+    }
+
+    /**
+     * Called when the pause window ends before the job finished. Releases anything that would
+     * make the server work during gameplay; the job picks up again in the next window.
+     */
+    default void suspend() {
+    }
+
+    /**
+     * Releases anything the job holds when it is dropped before finishing
+     */
+    default void cancel() {
+    }
+}
@@ -0,0 +1,332 @@
+package com.opencode.minecraft.game;
+
+import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.config.ModConfig;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.status.ChunkType;
+import net.minecraft.world.level.chunk.storage.ChunkSerializer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs deferred world maintenance on the integrated server while the game is paused,
+ * so it doesn't compete with gameplay once the agent starts working again.
+ *
+ * Jobs (all server-thread only):
+ * - Flush dirty chunks to disk
+ * - Pre-generate chunks in a radius around each player
+ * - Run a queued world save
+ *
+ * Each job works in small steps and the pause state is re-checked between steps,
+ * so work stops within one tick when the session goes BUSY/GENERATING. Chunk generation
+ * and loading run off the server thread; jobs only poll for their results.
+ */
+public class PauseWindowScheduler {
+    // Time spent on jobs per server tick while paused
+    private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(40);
+
+    // Minimum time between world saves queued by the scheduler
+    private static final long SAVE_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final PauseController pauseController;
+    private volatile boolean enabled;
+    private volatile int pregenRadius;
+
+    // Server-thread only state
+    private final Deque<PauseWindowJob> jobs = new ArrayDeque<>();
+    private MinecraftServer server = null;
+    private boolean inPauseWindow = false;
+    private long lastSaveTime = 0;
+
+    public PauseWindowScheduler(PauseController pauseController, ModConfig config) {
+        this.pauseController = pauseController;
+        applyConfig(config);
+    }
+
+    public void applyConfig(ModConfig config) {
+        this.enabled = config.pauseMaintenance;
+        this.pregenRadius = Math.max(0, config.pregenRadius);
+    }
+
+    /**
+     * Called from the server tick. Runs a slice of pending jobs while paused.
+     *
+     * @return true if jobs are still pending for this pause window
+     */
+    public boolean tick(MinecraftServer server, boolean paused) {
+        if (this.server != server) {
+            // New world, drop anything queued for the old one
+            jobs.forEach(PauseWindowJob::cancel);
+            jobs.clear();
+            this.server = server;
+            inPauseWindow = false;
+            lastSaveTime = System.currentTimeMillis();
+        }
+
+        if (!paused || !enabled) {
+            if (inPauseWindow) {
+                // Don't leave chunk work running into gameplay
+                jobs.forEach(PauseWindowJob::suspend);
+                inPauseWindow = false;
+            }
+            return false;
+        }
+
+        if (!inPauseWindow) {
+            inPauseWindow = true;
+            onPauseWindowStart(server);
+        }
+
+        runSlice(server);
+        return !jobs.isEmpty();
+    }
+
+    /**
+     * Queues a job for the next pause window
+     */
+    public void enqueue(PauseWindowJob job) {
+        jobs.addLast(job);
+    }
+
+    public int getPendingJobs() {
+        return jobs.size();
+    }
+
+    private void onPauseWindowStart(MinecraftServer server) {
+        if (jobs.isEmpty()) {
+            enqueue(new FlushChunksJob(server));
+            if (pregenRadius > 0) {
+                for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+                    enqueue(new PregenerateChunksJob(player.serverLevel(), player.chunkPosition(), pregenRadius));
+                }
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastSaveTime >= SAVE_INTERVAL_MS) {
+            lastSaveTime = now;
+            enqueue(new WorldSaveJob(server));
+        }
+    }
+
+    private void runSlice(MinecraftServer server) {
+        long deadline = System.nanoTime() + SLICE_NANOS;
+
+        while (!jobs.isEmpty() && System.nanoTime() < deadline) {
+            // Stop as soon as the session goes busy again
+            if (!pauseController.shouldGameBePaused() || !server.isRunning()) {
+                return;
+            }
+
+            PauseWindowJob job = jobs.peekFirst();
+            try {
+                if (job.step(server)) {
+                    jobs.pollFirst();
+                    OpenCodeMod.LOGGER.debug("Pause window job finished: {}", job.getName());
+                } else if (job.isWaiting()) {
+                    // Let the server loop run the chunk tasks the job is waiting on
+                    return;
+                }
+            } catch (Exception e) {
+                jobs.pollFirst();
+                job.cancel();
+                OpenCodeMod.LOGGER.error("Pause window job failed: {}", job.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Saves dirty chunks of one level per step
+     */
+    private static class FlushChunksJob implements PauseWindowJob {
+        private final List<ServerLevel> levels = new ArrayList<>();
+        private int index = 0;
+
+        FlushChunksJob(MinecraftServer server) {
+            server.getAllLevels().forEach(levels::add);
+        }
+
+        @Override
+        public String getName() {
+            return "Flush chunks";
+        }
+
+        @Override
+        public boolean step(MinecraftServer server) {
+            if (index >= levels.size()) return true;
+            levels.get(index++).getChunkSource().save(false);
+            return index >= levels.size();
+        }
+    }
+
+    /**
+     * Generates chunks in a square spiral around a center, one chunk at a time.
+     *
+     * Each chunk is first looked up on disk, asynchronously; chunks already fully generated
+     * are skipped. Missing ones are requested with a ticket, generated by the worldgen
+     * threads and polled for, and the ticket is released once the chunk is done, so nothing
+     * stays loaded even when no tick ever runs (HALT mode). It is also released when the
+     * pause window ends, so the chunk isn't generated during gameplay.
+     */
+    private static class PregenerateChunksJob implements PauseWindowJob {
+        private static final TicketType<ChunkPos> TICKET = TicketType.create("opencode_pregen", Comparator.comparingLong(ChunkPos::toLong));
+
+        private final ServerLevel level;
+        private final int centerX;
+        private final int centerZ;
+        private final int total;
+        private int index = 0;
+
+        // Spiral walk state
+        private int x = 0;
+        private int z = 0;
+        private int dx = 0;
+        private int dz = -1;
+
+        // The chunk in progress: its disk lookup, then its ticket while it generates
+        private ChunkPos pending = null;
+        private CompletableFuture<Optional<CompoundTag>> diskLookup = null;
+        private boolean ticketed = false;
+
+        PregenerateChunksJob(ServerLevel level, ChunkPos center, int radius) {
+            this.level = level;
+            this.centerX = center.x;
+            this.centerZ = center.z;
+            int side = radius * 2 + 1;
+            this.total = side * side;
+        }
+
+        @Override
+        public String getName() {
+            return "Pre-generate chunks";
+        }
+
+        @Override
+        public boolean step(MinecraftServer server) {
+            ServerChunkCache chunkSource = level.getChunkSource();
+
+            if (pending == null) {
+                // Skip chunks that are already loaded, look the next one up on disk
+                while (index < total && pending == null) {
+                    int chunkX = centerX + x;
+                    int chunkZ = centerZ + z;
+                    advance();
+
+                    if (!chunkSource.hasChunk(chunkX, chunkZ)) {
+                        pending = new ChunkPos(chunkX, chunkZ);
+                        diskLookup = chunkSource.chunkMap.read(pending);
+                    }
+                }
+                return pending == null;
+            }
+
+            if (diskLookup == null && !ticketed) {
+                // Suspended when the last pause window ended, request it again
+                diskLookup = chunkSource.chunkMap.read(pending);
+                return false;
+            }
+
+            if (diskLookup != null) {
+                if (!diskLookup.isDone()) return false;
+
+                Optional<CompoundTag> stored = diskLookup.getNow(Optional.empty());
+                diskLookup = null;
+                if (stored.isPresent() && ChunkSerializer.getChunkTypeFromTag(stored.get()) == ChunkType.LEVELCHUNK) {
+                    // Already generated, don't load it just to unload it again
+                    pending = null;
+                    return index >= total;
+                }
+                chunkSource.addRegionTicket(TICKET, pending, 0, pending);
+                ticketed = true;
+                return false;
+            }
+
+            if (chunkSource.getChunkNow(pending.x, pending.z) == null) return false;
+
+            // Generated, let it unload
+            releaseTicket();
+            pending = null;
+            return index >= total;
+        }
+
+        @Override
+        public boolean isWaiting() {
+            return pending != null;
+        }
+
+        @Override
+        public void suspend() {
+            releaseTicket();
+            diskLookup = null;
+        }
+
+        @Override
+        public void cancel() {
+            releaseTicket();
+        }
+
+        private void releaseTicket() {
+            if (ticketed) {
+                level.getChunkSource().removeRegionTicket(TICKET, pending, 0, pending);
+                ticketed = false;
+            }
+        }
+
+        private void advance() {
+            index++;
+            if (x == z || (x < 0 && x == -z) || (x > 0 && x == 1 - z)) {
+                int t = dx;
+                dx = -dz;
+                dz = t;
+            }
+            x += dx;
+            z += dz;
+        }
+    }
+
+    /**
+     * Saves the world a piece per step: player data, then each level, then the level data.
+     * The last step goes through the server's own save, which finds the levels already saved.
+     */
+    private static class WorldSaveJob implements PauseWindowJob {
+        private final List<ServerLevel> levels = new ArrayList<>();
+        private int index = -1;
+
+        WorldSaveJob(MinecraftServer server) {
+            server.getAllLevels().forEach(levels::add);
+        }
+
+        @Override
+        public String getName() {
+            return "World save";
+        }
+
+        @Override
+        public boolean step(MinecraftServer server) {
+            if (index < 0) {
+                server.getPlayerList().saveAll();
+            } else if (index < levels.size()) {
+                ServerLevel level = levels.get(index);
+                level.save(null, false, level.noSave());
+            } else {
+                server.saveAllChunks(true, false, false);
+                return true;
+            }
+            index++;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.opencode.minecraft.game;
+
+import com.opencode.minecraft.client.AgentActivity;
+import com.opencode.minecraft.config.ModConfig;
+import com.opencode.minecraft.config.PauseMode;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.ServerTickRateManager;
+
+/**
+ * PROPORTIONAL pause mode: scales the integrated server's tick rate with agent activity
+ * instead of switching between 0 and 20 TPS.
+ *
+ * The target rate is computed on the client tick from {@link AgentActivity}, smoothed and
+ * ramp-limited, and published as a volatile float. The server thread only reads it.
+ */
+public class ProportionalTickRate {
+    // Vanilla default tick rate, restored when leaving the mode
+    private static final float DEFAULT_TICK_RATE = 20.0f;
+
+    // Weight of the new target per client tick
+    private static final float SMOOTHING = 0.15f;
+
+    // Token rate at which the world runs at full speed
+    private static final double FULL_SPEED_TOKENS_PER_SECOND = 20.0;
+
+    // Activity while tool calls are running, and the floor while the session is busy at all
+    private static final float TOOL_ACTIVITY = 0.75f;
+    private static final float BUSY_ACTIVITY = 0.25f;
+
+    // Time constant for the activity decay after the last delta
+    private static final double DELTA_DECAY_MS = 3000.0;
+
+    // Smallest change worth sending to the tick-rate manager (it syncs to clients)
+    private static final float MIN_RATE_CHANGE = 0.25f;
+
+    private static final int TICKS_PER_SECOND = 20;
+
+    private final PauseController pauseController;
+    private final AgentActivity activity;
+    private volatile float minRate;
+    private volatile float maxRate;
+    private volatile float rampPerSecond;
+
+    // Client-thread state
+    private float smoothedRate = DEFAULT_TICK_RATE;
+    private volatile float targetRate = DEFAULT_TICK_RATE;
+
+    // Server-thread state
+    private MinecraftServer server = null;
+    private float appliedRate = -1;
+
+    public ProportionalTickRate(PauseController pauseController, AgentActivity activity, ModConfig config) {
+        this.pauseController = pauseController;
+        this.activity = activity;
+        applyConfig(config);
+    }
+
+    public void applyConfig(ModConfig config) {
+        this.minRate = Math.max(1.0f, config.minTickRate);
+        this.maxRate = Math.max(minRate, config.maxTickRate);
+        this.rampPerSecond = Math.max(0.1f, config.tickRateRampPerSecond);
+    }
+
+    /**
+     * Called every client tick to move the target rate toward the current activity
+     */
+    public void tick() {
+        if (pauseController.getPauseMode() != PauseMode.PROPORTIONAL) {
+            smoothedRate = maxRate;
+            targetRate = maxRate;
+            return;
+        }
+
+        float desired = minRate + (maxRate - minRate) * computeActivity();
+        float next = smoothedRate + (desired - smoothedRate) * SMOOTHING;
+
+        float maxStep = rampPerSecond / TICKS_PER_SECOND;
+        next = Math.max(smoothedRate - maxStep, Math.min(smoothedRate + maxStep, next));
+
+        smoothedRate = Math.max(minRate, Math.min(maxRate, next));
+        targetRate = smoothedRate;
+    }
+
+    /**
+     * Activity in [0, 1] from the token rate, running tools and time since the last delta
+     */
+    private float computeActivity() {
+        PauseSnapshot snapshot = pauseController.getSnapshot();
+        if (!snapshot.enabled()) return 1.0f;
+        if (snapshot.userTyping() || !snapshot.status().isActive()) return 0.0f;
+
+        float tokenScore = (float) Math.min(1.0, activity.getTokensPerSecond() / FULL_SPEED_TOKENS_PER_SECOND);
+        float toolScore = activity.getRunningToolCount() > 0 ? TOOL_ACTIVITY : 0.0f;
+
+        long sinceDelta = activity.getMillisSinceLastDelta();
+        float recencyScore = sinceDelta == Long.MAX_VALUE ? 0.0f : (float) Math.exp(-sinceDelta / DELTA_DECAY_MS);
+
+        return Math.max(BUSY_ACTIVITY, Math.max(tokenScore, Math.max(toolScore, recencyScore)));
+    }
+
+    public float getTargetRate() {
+        return targetRate;
+    }
+
+    /**
+     * Called from the server tick in PROPORTIONAL mode to apply the target rate
+     */
+    public void apply(MinecraftServer server) {
+        if (this.server != server) {
+            this.server = server;
+            appliedRate = -1;
+        }
+
+        float target = targetRate;
+        if (appliedRate < 0 || Math.abs(target - appliedRate) >= MIN_RATE_CHANGE) {
+            server.tickRateManager().setTickRate(target);
+            appliedRate = target;
+        }
+    }
+
+    /**
+     * Called from the server tick in other modes to restore the default rate we changed
+     */
+    public void release(MinecraftServer server) {
+        if (this.server != server || appliedRate < 0) return;
+
+        ServerTickRateManager tickRateManager = server.tickRateManager();
+        // Leave the rate alone if someone changed it with /tick rate since
+        if (tickRateManager.tickrate() == appliedRate) {
+            tickRateManager.setTickRate(DEFAULT_TICK_RATE);
+        }
+        appliedRate = -1;
+    }
+}
@@ -0,0 +1,120 @@
+package com.opencode.minecraft.game;
+
+import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.client.AgentActivity;
+import com.opencode.minecraft.client.OpenCodeClient;
+import com.opencode.minecraft.client.session.SessionStatus;
+import com.opencode.minecraft.perf.FrameBudget;
+import com.opencode.minecraft.perf.Subsystem;
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+
+import java.util.Objects;
+
+/**
+ * Compact always-on HUD element showing session status, tokens/sec, queued events
+ * and the tool in progress (enabled with showStatusBar).
+ *
+ * The bar is retained: its component and size are only rebuilt when one of the displayed
+ * values changes. Every other frame just compares a few fields and draws the cached text.
+ */
+public class StatusBar {
+    private static final int MARGIN = 4;
+    private static final int PADDING = 3;
+    private static final int BACKGROUND_COLOR = 0x80000000;
+
+    // Client-thread only: values the cached text was built from
+    private static SessionStatus shownStatus = null;
+    private static int shownTokensPerSecond = -1;
+    private static int shownQueueDepth = -1;
+    private static String shownTool = null;
+    private static Component text = null;
+    private static int textWidth = 0;
+
+    /**
+     * Renders the status bar if enabled.
+     * Called from HUD rendering.
+     */
+    public static void render(GuiGraphics context) {
+        if (!OpenCodeMod.getConfigManager().getConfig().showStatusBar) return;
+
+        FrameBudget budget = OpenCodeMod.getFrameBudget();
+        long start = budget.begin();
+        try {
+            renderBar(context);
+        } finally {
+            budget.end(Subsystem.STATUS_BAR, start);
+        }
+    }
+
+    private static void renderBar(GuiGraphics context) {
+        OpenCodeClient client = OpenCodeMod.getClient();
+        Minecraft minecraft = Minecraft.getInstance();
+        if (client == null || minecraft.player == null) return;
+
+        AgentActivity activity = client.getActivity();
+        SessionStatus status = client.getStatus();
+        int tokensPerSecond = status.isActive() ? (int) Math.round(activity.getTokensPerSecond()) : 0;
+        int queueDepth = client.getPendingDispatchCount();
+        String tool = activity.getCurrentToolName();
+
+        if (text == null || status != shownStatus || tokensPerSecond != shownTokensPerSecond
+                || queueDepth != shownQueueDepth || !Objects.equals(tool, shownTool)) {
+            shownStatus = status;
+            shownTokensPerSecond = tokensPerSecond;
+            shownQueueDepth = queueDepth;
+            shownTool = tool;
+            rebuild(minecraft.font);
+        }
+
+        int height = minecraft.font.lineHeight + PADDING * 2;
+        context.fill(MARGIN, MARGIN, MARGIN + textWidth + PADDING * 2, MARGIN + height, BACKGROUND_COLOR);
+        context.drawString(minecraft.font, text, MARGIN + PADDING, MARGIN + PADDING + 1, 0xFFFFFFFF);
+    }
+
+    private static void rebuild(Font font) {
+        HudTextCache.Text label = HudTextCache.get(font, getStatusLabel(shownStatus), getStatusColor(shownStatus));
+        MutableComponent line = Component.literal("").append(label.component());
+
+        if (shownStatus.isActive()) {
+            line.append(separator()).append(Component.literal(shownTokensPerSecond + " tok/s").withStyle(ChatFormatting.WHITE));
+        }
+        if (shownQueueDepth > 0) {
+            line.append(separator()).append(Component.literal("queue " + shownQueueDepth).withStyle(ChatFormatting.YELLOW));
+        }
+        if (shownTool != null) {
+            line.append(separator()).append(Component.literal(shownTool).withStyle(ChatFormatting.AQUA));
+        }
+
+        text = line;
+        textWidth = font.width(line);
+    }
+
+    private static Component separator() {
+        return Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY);
+    }
+
+    private static String getStatusLabel(SessionStatus status) {
+        return switch (status) {
+            case DISCONNECTED -> "Disconnected";
+            case IDLE -> "Idle";
+            case BUSY -> "Processing";
+            case GENERATING -> "Generating";
+            case RETRY -> "Retrying";
+        };
+    }
+
+    private static ChatFormatting getStatusColor(SessionStatus status) {
+        return switch (status) {
+            case DISCONNECTED -> ChatFormatting.RED;
+            case IDLE -> ChatFormatting.GRAY;
+            case BUSY -> ChatFormatting.YELLOW;
+            case GENERATING -> ChatFormatting.GREEN;
+            case RETRY -> ChatFormatting.GOLD;
+        };
+    }
+}
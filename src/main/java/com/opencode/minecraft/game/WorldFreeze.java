@@ -0,0 +1,43 @@
+package com.opencode.minecraft.game;
+
+import com.opencode.minecraft.OpenCodeMod;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.ServerTickRateManager;
+
+/**
+ * Freezes the integrated server world through vanilla's tick-rate manager
+ * instead of cancelling the whole server tick.
+ *
+ * Only a freeze applied by this class is ever lifted, so a world frozen with
+ * /tick freeze stays frozen.
+ */
+public class WorldFreeze {
+    // Server-thread only state
+    private MinecraftServer server = null;
+    private boolean frozenByUs = false;
+
+    /**
+     * Called from the server tick with the current pause decision
+     */
+    public void update(MinecraftServer server, boolean paused) {
+        if (this.server != server) {
+            this.server = server;
+            frozenByUs = false;
+        }
+
+        ServerTickRateManager tickRateManager = server.tickRateManager();
+        if (paused && !frozenByUs) {
+            if (!tickRateManager.isFrozen()) {
+                tickRateManager.setFrozen(true);
+                frozenByUs = true;
+                OpenCodeMod.LOGGER.debug("World frozen by OpenCode");
+            }
+        } else if (!paused && frozenByUs) {
+            frozenByUs = false;
+            if (tickRateManager.isFrozen()) {
+                tickRateManager.setFrozen(false);
+                OpenCodeMod.LOGGER.debug("World unfrozen by OpenCode");
+            }
+        }
+    }
+}
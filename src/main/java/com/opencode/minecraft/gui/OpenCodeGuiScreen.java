@@ -1,13 +1,15 @@
 package com.opencode.minecraft.gui;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.client.search.SearchIndex;
 import com.opencode.minecraft.client.session.SessionInfo;
-import com.opencode.minecraft.gui.markdown.FormattedLine;
-import com.opencode.minecraft.gui.markdown.MarkdownParser;
-import com.opencode.minecraft.gui.markdown.TextSegment;
+import com.opencode.minecraft.gui.layout.LayoutLine;
+import com.opencode.minecraft.gui.transcript.Transcript;
+import com.opencode.minecraft.gui.transcript.TranscriptPart;
+import com.opencode.minecraft.perf.FrameBudget;
+import com.opencode.minecraft.perf.Subsystem;
+import com.opencode.minecraft.perf.jfr.GuiLayoutEvent;
+import com.opencode.minecraft.perf.jfr.JfrEvents;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.EditBox;
 import net.minecraft.client.gui.screens.Screen;
@@ -15,7 +17,11 @@ import net.minecraft.network.chat.Component;
 import org.lwjgl.glfw.GLFW;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * Terminal-style GUI screen for OpenCode chat interface
@@ -29,30 +35,42 @@ public class OpenCodeGuiScreen extends Screen {
     private static final int TEXT_COLOR = 0xFFfff8dc; // Warm white (cornsilk)
     private static final int INPUT_COLOR = 0xFFfff8dc; // Warm white input
     private static final int PROMPT_COLOR = 0xFFff8c42; // Burnt orange prompt
+    private static final int SEARCH_HIGHLIGHT_COLOR = 0x80ffbf00; // Translucent amber
 
     private EditBox inputField;
-    private List<FormattedLine> messageHistory;
+    // The session's client-owned transcript; the screen is only a view of it
+    private TranscriptStore store;
+    private Transcript transcript;
     private int scrollOffset = 0;
-    private StringBuilder currentAssistantMessage = new StringBuilder();
-    private boolean receivingResponse = false;
+    // Line count the scroll offset was last set against; used to hold the view in search mode
+    private int shownLineCount = 0;
+
+    // Ctrl+F search state
+    private boolean searchMode = false;
+    private String searchQuery = "";
+    private String savedInput = "";
+    private List<String> searchTerms = List.of();
+    private List<TranscriptPart> searchMatches = List.of();
+    private int searchMatch = -1;
 
     public OpenCodeGuiScreen() {
         super(Component.literal("OpenCode Terminal"));
-        this.messageHistory = new ArrayList<>();
     }
 
     @Override
     protected void init() {
         super.init();
 
-        // Load message history from current session
-        if (messageHistory.isEmpty()) {
-            loadMessageHistory();
-        }
+        // Attach to the live transcript; init runs again on resize, which re-wraps once
+        store = OpenCodeMod.getClient().getCurrentTranscriptStore();
+        transcript = store.getTranscript();
+        store.setLayout(OpenCodeMod.getClient().getTextLayout(), getMessageWidth());
 
-        // Register for real-time message updates
-        OpenCodeMod.getClient().setGuiMessageListener(this::onMessageDelta);
-        OpenCodeMod.getClient().setGuiResponseCompleteListener(this::onResponseComplete);
+        // Auto-scroll to bottom when new content arrives, except while looking at a search match
+        store.setAppendListener(() -> {
+            if (!searchMode) scrollOffset = 0;
+        });
+        shownLineCount = transcript.getLineCount();
 
         // Calculate dimensions for terminal window
         int terminalWidth = this.width - 40;
@@ -75,7 +93,8 @@ public class OpenCodeGuiScreen extends Screen {
         this.inputField.setMaxLength(1000);
         this.inputField.setBordered(false);
         this.inputField.setTextColor(INPUT_COLOR);
-        this.inputField.setValue("");
+        this.inputField.setValue(searchMode ? searchQuery : "");
+        this.inputField.setResponder(this::onInputChanged);
         this.addRenderableWidget(this.inputField);
         this.setInitialFocus(this.inputField);
     }
@@ -83,158 +102,26 @@ public class OpenCodeGuiScreen extends Screen {
     @Override
     public void removed() {
         super.removed();
-        // Unregister listener when GUI is closed
-        OpenCodeMod.getClient().clearGuiMessageListener();
-    }
-
-    /**
-     * Called when a message delta arrives via SSE
-     */
-    private void onMessageDelta(String delta) {
-        // This is called from the main thread via OpenCodeClient
-        if (!receivingResponse) {
-            // Start of a new response
-            receivingResponse = true;
-            currentAssistantMessage.setLength(0);
-        }
-
-        // Append delta to current message
-        currentAssistantMessage.append(delta);
-
-        // Update the last message line with the accumulated text
-        updateLastMessage("[OPENCODE] " + currentAssistantMessage.toString());
-
-        // Auto-scroll to bottom when receiving messages
-        scrollOffset = 0;
-    }
-
-    /**
-     * Called when a response completes (session goes to idle)
-     */
-    private void onResponseComplete() {
-        if (receivingResponse) {
-            // Add spacing after completed response
-            addMessage("", 0xFFffbf00); // Amber
-            receivingResponse = false;
+        // Detach from the transcript when GUI is closed; it keeps ingesting without us
+        if (store != null) {
+            store.setAppendListener(null);
         }
     }
 
-    /**
-     * Updates the last message in the history (used for streaming updates)
-     */
-    private void updateLastMessage(String newText) {
-        // Find where the last assistant message starts by looking backwards
-        int lastMessageStart = messageHistory.size();
-
-        // Look for the last [OPENCODE] message
-        for (int i = messageHistory.size() - 1; i >= 0; i--) {
-            FormattedLine line = messageHistory.get(i);
-            String plainText = line.getPlainText();
-            if (plainText.trim().startsWith("[OPENCODE]")) {
-                lastMessageStart = i;
-                break;
-            }
-            // Stop at empty lines or other message types
-            if (plainText.trim().isEmpty() || plainText.trim().startsWith("[YOU]") || plainText.trim().startsWith("[SYSTEM]")) {
-                break;
-            }
-        }
-
-        // Remove old assistant message lines
-        while (messageHistory.size() > lastMessageStart) {
-            messageHistory.remove(messageHistory.size() - 1);
-        }
-
-        // Parse markdown and add the new text
-        List<FormattedLine> parsedLines = MarkdownParser.parse(newText, 0xFFff8c00); // Dark orange for responses
-        messageHistory.addAll(parsedLines);
-    }
-
-    private void loadMessageHistory() {
-        // Add header
-        addMessage("[SYSTEM] OpenCode Terminal v1.0", 0xFFff8c42); // Burnt orange
-        addMessage("", 0xFFffbf00);
-
-        // Get current session and load messages
-        SessionInfo session = OpenCodeMod.getClient().getCurrentSession();
-        if (session != null) {
-            addMessage("[SYSTEM] Loading session: " + session.getId(), 0xFFffbf00); // Amber
-            addMessage("", 0xFFffbf00);
-
-            // Fetch messages asynchronously
-            OpenCodeMod.getClient().getCurrentSession();
-            // Access the HTTP client through reflection or add a getter
-            // For now, we'll need to add a method to OpenCodeClient to expose this
-            loadSessionMessages(session.getId());
-        } else {
-            addMessage("[SYSTEM] No active session", 0xFFffbf00); // Amber
-            addMessage("[SYSTEM] Run '/oc session new' to create a session", 0xFFffbf00);
-            addMessage("", 0xFFffbf00);
+    @Override
+    public void render(GuiGraphics guiGraphics, int mouseX, int mouseY, float partialTick) {
+        FrameBudget budget = OpenCodeMod.getFrameBudget();
+        long start = budget.begin();
+        try {
+            renderTerminal(guiGraphics, mouseX, mouseY, partialTick);
+        } finally {
+            budget.end(Subsystem.GUI_RENDER, start);
         }
     }
 
-    private void loadSessionMessages(String sessionId) {
-        OpenCodeMod.getClient().getSessionMessages(sessionId)
-                .thenAccept(messages -> {
-                    // Process on main thread
-                    net.minecraft.client.Minecraft.getInstance().execute(() -> {
-                        if (messages.size() == 0) {
-                            addMessage("[SYSTEM] No messages in session yet", 0xFFffbf00); // Amber
-                            addMessage("[SYSTEM] Type your prompt below to start", 0xFFffbf00);
-                            addMessage("", 0xFFffbf00);
-                        } else {
-                            addMessage("[SYSTEM] Loaded " + messages.size() + " messages", 0xFFffbf00); // Amber
-                            addMessage("", 0xFFffbf00);
-
-                            // Parse and display each message
-                            for (JsonElement msgElement : messages) {
-                                parseAndDisplayMessage(msgElement.getAsJsonObject());
-                            }
-                        }
-                    });
-                })
-                .exceptionally(e -> {
-                    net.minecraft.client.Minecraft.getInstance().execute(() -> {
-                        addMessage("[ERROR] Failed to load messages: " + e.getMessage(), 0xFFdc143c); // Crimson red
-                        addMessage("", 0xFFffbf00);
-                    });
-                    return null;
-                });
-    }
-
-    private void parseAndDisplayMessage(JsonObject message) {
-        // Get message info
-        JsonObject info = message.has("info") ? message.getAsJsonObject("info") : null;
-        if (info == null) return;
-
-        String role = info.has("role") ? info.get("role").getAsString() : "unknown";
-
-        // Get message parts
-        JsonArray parts = message.has("parts") ? message.getAsJsonArray("parts") : new JsonArray();
-
-        // Display based on role
-        for (JsonElement partElement : parts) {
-            JsonObject part = partElement.getAsJsonObject();
-            String type = part.has("type") ? part.get("type").getAsString() : "";
-
-            // Only display text parts
-            if ("text".equals(type) && part.has("text")) {
-                String text = part.get("text").getAsString();
-
-                if ("user".equals(role)) {
-                    addMessage("[YOU] " + text, 0xFFffa07a); // Light salmon
-                } else if ("assistant".equals(role)) {
-                    addMessage("[OPENCODE] " + text, 0xFFff8c00); // Dark orange
-                }
-            }
-        }
-
-        // Add spacing after each message exchange
-        addMessage("", 0xFFffbf00);
-    }
+    private void renderTerminal(GuiGraphics guiGraphics, int mouseX, int mouseY, float partialTick) {
+        holdSearchView();
 
-    @Override
-    public void render(GuiGraphics guiGraphics, int mouseX, int mouseY, float partialTick) {
         // Render dark background to prevent blur
         renderBackground(guiGraphics, mouseX, mouseY, partialTick);
 
@@ -262,33 +149,52 @@ public class OpenCodeGuiScreen extends Screen {
         int messageY = terminalY + 24; // Below title
         int maxX = terminalX + terminalWidth - borderThickness - 8; // Right margin
         int maxY = terminalY + terminalHeight - 40;
-        int messageWidth = maxX - messageX;
         int lineHeight = this.font.lineHeight + 2;
 
         // Calculate how many lines can actually fit on screen
         int availableHeight = maxY - messageY;
         int maxVisibleLines = Math.max(1, availableHeight / lineHeight);
 
-        int startIndex = Math.max(0, messageHistory.size() - maxVisibleLines - scrollOffset);
-        int endIndex = Math.min(messageHistory.size(), startIndex + maxVisibleLines);
+        int lineCount = transcript.getLineCount();
+        int startIndex = Math.max(0, lineCount - maxVisibleLines - scrollOffset);
+        int endIndex = Math.min(lineCount, startIndex + maxVisibleLines);
+
+        GuiLayoutEvent layoutEvent = null;
+        if (JfrEvents.isEnabled()) {
+            layoutEvent = new GuiLayoutEvent();
+            layoutEvent.sessionId = currentSessionId();
+            layoutEvent.lines = endIndex - startIndex;
+            layoutEvent.begin();
+        }
 
         // Enable scissor (clipping) to prevent text overflow
         guiGraphics.enableScissor(messageX, messageY, maxX, maxY);
 
-        for (int i = startIndex; i < endIndex; i++) {
+        for (LayoutLine line : transcript.getLines(startIndex, endIndex)) {
             if (messageY >= maxY) break;
 
-            FormattedLine line = messageHistory.get(i);
-            renderFormattedLine(guiGraphics, line, messageX, messageY, messageWidth);
+            for (LayoutLine.Run run : line.runs()) {
+                if (searchMode && !searchTerms.isEmpty()) {
+                    drawSearchHighlights(guiGraphics, run, messageX + run.x(), messageY);
+                }
+                guiGraphics.drawString(this.font, run.text(), messageX + run.x(), messageY, run.color(), false);
+                if (layoutEvent != null) {
+                    layoutEvent.chars += run.text().length();
+                }
+            }
             messageY += lineHeight;
         }
 
         // Disable scissor
         guiGraphics.disableScissor();
 
-        // Draw input prompt
+        if (layoutEvent != null) {
+            layoutEvent.commit();
+        }
+
+        // Draw input prompt, "/" while searching
         int inputY = terminalY + terminalHeight - 30;
-        guiGraphics.drawString(this.font, ">", terminalX + 10, inputY + 6, PROMPT_COLOR, false);
+        guiGraphics.drawString(this.font, searchMode ? "/" : ">", terminalX + 10, inputY + 6, PROMPT_COLOR, false);
 
         // Draw input field border (darker copper)
         int inputBoxX = terminalX + 25;
@@ -299,11 +205,22 @@ public class OpenCodeGuiScreen extends Screen {
         // Render widgets (input field)
         super.render(guiGraphics, mouseX, mouseY, partialTick);
 
-        // Draw scroll indicator if needed (inside terminal, above input field)
-        if (messageHistory.size() > maxVisibleLines) {
+        // Draw search or scroll indicator if needed (inside terminal, above input field)
+        if (searchMode) {
+            String searchInfo;
+            if (searchTerms.isEmpty()) {
+                searchInfo = "[search: Enter older, Shift+Enter newer, Esc done]";
+            } else if (searchMatches.isEmpty()) {
+                searchInfo = "[no matches]";
+            } else {
+                searchInfo = String.format("[match %d/%d]", searchMatch + 1, searchMatches.size());
+            }
+            int searchX = terminalX + terminalWidth - this.font.width(searchInfo) - 12;
+            guiGraphics.drawString(this.font, searchInfo, searchX, terminalY + terminalHeight - 40, 0xFFffbf00, false); // Amber
+        } else if (lineCount > maxVisibleLines) {
             String scrollInfo = String.format("[↑↓ scroll %d/%d]",
-                Math.max(0, messageHistory.size() - maxVisibleLines - scrollOffset),
-                messageHistory.size() - maxVisibleLines);
+                Math.max(0, lineCount - maxVisibleLines - scrollOffset),
+                lineCount - maxVisibleLines);
             // Position above input field, bottom right
             int scrollX = terminalX + terminalWidth - this.font.width(scrollInfo) - 12;
             int scrollY = terminalY + terminalHeight - 40; // Above input, inside border
@@ -328,8 +245,43 @@ public class OpenCodeGuiScreen extends Screen {
         guiGraphics.fill(x + width - borderThickness, y, x + width, y + height, BORDER_COLOR);
     }
 
+    /**
+     * Fills behind the parts of a run that match a search term.
+     * Only runs while searching, so normal frames do no measuring.
+     */
+    private void drawSearchHighlights(GuiGraphics guiGraphics, LayoutLine.Run run, int x, int y) {
+        String text = run.text();
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (String term : searchTerms) {
+            for (int at = lower.indexOf(term); at >= 0; at = lower.indexOf(term, at + term.length())) {
+                int left = x + this.font.width(text.substring(0, at));
+                int right = left + this.font.width(text.substring(at, at + term.length()));
+                guiGraphics.fill(left, y - 1, right, y + this.font.lineHeight, SEARCH_HIGHLIGHT_COLOR);
+            }
+        }
+    }
+
     @Override
     public boolean keyPressed(int keyCode, int scanCode, int modifiers) {
+        if (keyCode == GLFW.GLFW_KEY_F && (modifiers & GLFW.GLFW_MOD_CONTROL) != 0) {
+            if (!searchMode) {
+                enterSearchMode();
+            }
+            return true;
+        }
+
+        if (searchMode) {
+            if (keyCode == GLFW.GLFW_KEY_ENTER || keyCode == GLFW.GLFW_KEY_KP_ENTER) {
+                // Matches are in transcript order, so older is backwards
+                stepSearchMatch((modifiers & GLFW.GLFW_MOD_SHIFT) != 0 ? 1 : -1);
+                return true;
+            }
+            if (keyCode == GLFW.GLFW_KEY_ESCAPE) {
+                exitSearchMode();
+                return true;
+            }
+        }
+
         if (keyCode == GLFW.GLFW_KEY_ENTER || keyCode == GLFW.GLFW_KEY_KP_ENTER) {
             handleSubmit();
             return true;
@@ -340,7 +292,7 @@ public class OpenCodeGuiScreen extends Screen {
             int availableHeight = (this.height - 40 - 40 - 24);
             int lineHeight = this.font.lineHeight + 2;
             int maxVisibleLines = Math.max(1, availableHeight / lineHeight);
-            scrollOffset = Math.min(scrollOffset + 1, Math.max(0, messageHistory.size() - maxVisibleLines));
+            scrollOffset = Math.min(scrollOffset + 1, Math.max(0, transcript.getLineCount() - maxVisibleLines));
             return true;
         }
         if (keyCode == GLFW.GLFW_KEY_DOWN) {
@@ -356,6 +308,32 @@ public class OpenCodeGuiScreen extends Screen {
         return this.inputField.keyPressed(keyCode, scanCode, modifiers) || super.keyPressed(keyCode, scanCode, modifiers);
     }
 
+    @Override
+    public boolean mouseClicked(double mouseX, double mouseY, int button) {
+        // Clicking the header line of a tool or reasoning block expands or collapses it
+        int messageTop = 20 + 24;
+        int lineHeight = this.font.lineHeight + 2;
+        int maxVisibleLines = getMaxVisibleLines();
+        int row = (int) Math.floor((mouseY - messageTop) / lineHeight);
+        if (button == 0 && row >= 0 && row < maxVisibleLines && mouseX >= 20 && mouseX < this.width - 20) {
+            int lineCount = transcript.getLineCount();
+            int line = Math.max(0, lineCount - maxVisibleLines - scrollOffset) + row;
+            if (line < lineCount) {
+                TranscriptPart part = transcript.getPartAt(line);
+                if (part.getBlock() != null && transcript.getStartLine(part) == line) {
+                    part.getBlock().toggle();
+                    // Keep the header where it was: grow or shrink below it
+                    int grown = transcript.getLineCount() - lineCount;
+                    int maxScroll = Math.max(0, transcript.getLineCount() - maxVisibleLines);
+                    scrollOffset = Math.max(0, Math.min(maxScroll, scrollOffset + grown));
+                    shownLineCount = transcript.getLineCount();
+                    return true;
+                }
+            }
+        }
+        return super.mouseClicked(mouseX, mouseY, button);
+    }
+
     @Override
     public boolean mouseScrolled(double mouseX, double mouseY, double deltaX, double deltaY) {
         // Scroll with mouse wheel
@@ -364,13 +342,114 @@ public class OpenCodeGuiScreen extends Screen {
         int maxVisibleLines = Math.max(1, availableHeight / lineHeight);
 
         if (deltaY > 0) {
-            scrollOffset = Math.min(scrollOffset + 1, Math.max(0, messageHistory.size() - maxVisibleLines));
+            scrollOffset = Math.min(scrollOffset + 1, Math.max(0, transcript.getLineCount() - maxVisibleLines));
         } else if (deltaY < 0) {
             scrollOffset = Math.max(0, scrollOffset - 1);
         }
         return true;
     }
 
+    private void enterSearchMode() {
+        searchMode = true;
+        savedInput = this.inputField.getValue();
+        this.inputField.setValue("");
+    }
+
+    private void exitSearchMode() {
+        searchMode = false;
+        searchQuery = "";
+        searchTerms = List.of();
+        searchMatches = List.of();
+        searchMatch = -1;
+        this.inputField.setValue(savedInput);
+    }
+
+    private void onInputChanged(String value) {
+        if (searchMode) {
+            runSearch(value);
+        }
+    }
+
+    /**
+     * Looks the query up in the session's search index and jumps to the newest match
+     */
+    private void runSearch(String query) {
+        searchQuery = query;
+        searchTerms = SearchIndex.tokenize(query);
+        searchMatches = List.of();
+        searchMatch = -1;
+
+        String sessionId = store.getSessionId();
+        if (sessionId == null || searchTerms.isEmpty()) return;
+
+        // Several streamed text parts can share one transcript part
+        Set<TranscriptPart> found = new LinkedHashSet<>();
+        for (String partId : OpenCodeMod.getClient().getSearchIndex(sessionId).search(query)) {
+            TranscriptPart part = store.getTextPart(partId);
+            if (part != null) {
+                found.add(part);
+            }
+        }
+        List<TranscriptPart> matches = new ArrayList<>(found);
+        matches.sort(Comparator.comparingInt(transcript::getStartLine));
+
+        searchMatches = matches;
+        if (!matches.isEmpty()) {
+            searchMatch = matches.size() - 1;
+            jumpToSearchMatch();
+        }
+    }
+
+    private void stepSearchMatch(int direction) {
+        if (searchMatches.isEmpty()) return;
+        searchMatch = Math.floorMod(searchMatch + direction, searchMatches.size());
+        jumpToSearchMatch();
+    }
+
+    /**
+     * Scrolls so the current match is near the top of the view. The part's first line is
+     * found in O(log n) through the transcript's line index; only that part's lines are
+     * scanned for the line that holds the term.
+     */
+    private void jumpToSearchMatch() {
+        TranscriptPart part = searchMatches.get(searchMatch);
+        int start = transcript.getStartLine(part);
+        int line = start;
+        List<LayoutLine> partLines = transcript.getLines(start, start + part.getVisualLineCount());
+        scan:
+        for (int i = 0; i < partLines.size(); i++) {
+            for (LayoutLine.Run run : partLines.get(i).runs()) {
+                String lower = run.text().toLowerCase(Locale.ROOT);
+                for (String term : searchTerms) {
+                    if (lower.contains(term)) {
+                        line = start + i;
+                        break scan;
+                    }
+                }
+            }
+        }
+
+        int maxVisibleLines = getMaxVisibleLines();
+        int lineCount = transcript.getLineCount();
+        int maxScroll = Math.max(0, lineCount - maxVisibleLines);
+        int top = Math.max(0, line - maxVisibleLines / 3);
+        scrollOffset = Math.max(0, Math.min(maxScroll, lineCount - maxVisibleLines - top));
+        shownLineCount = lineCount;
+    }
+
+    /**
+     * The scroll offset counts from the bottom, so output streamed below a search match
+     * would push it up; in search mode the offset grows with the transcript instead
+     */
+    private void holdSearchView() {
+        int lineCount = transcript.getLineCount();
+        if (searchMode && lineCount != shownLineCount) {
+            int maxScroll = Math.max(0, lineCount - getMaxVisibleLines());
+            scrollOffset = Math.max(0, Math.min(maxScroll, scrollOffset + lineCount - shownLineCount));
+        }
+        shownLineCount = lineCount;
+    }
+
     private void handleSubmit() {
         String text = this.inputField.getValue().trim();
         if (!text.isEmpty()) {
@@ -382,15 +461,9 @@ public class OpenCodeGuiScreen extends Screen {
                 return;
             }
 
-            addMessage("[YOU] " + text, 0xFFffa07a); // Light salmon for user input
-            addMessage("", 0xFFffbf00); // Empty line for spacing
             this.inputField.setValue("");
 
-            // Reset response tracking
-            receivingResponse = false;
-            currentAssistantMessage.setLength(0);
-
-            // Send to OpenCode server
+            // Send to OpenCode server; the client adds the prompt to the transcript
             OpenCodeMod.getClient().sendPrompt(text)
                     .exceptionally(e -> {
                         net.minecraft.client.Minecraft.getInstance().execute(() -> {
@@ -405,50 +478,38 @@ public class OpenCodeGuiScreen extends Screen {
     }
 
     public void addMessage(String message, int color) {
-        // Parse markdown and add formatted lines
-        List<FormattedLine> parsedLines = MarkdownParser.parse(message, color);
-        messageHistory.addAll(parsedLines);
+        store.addSystemMessage(message, color);
+    }
 
-        // Keep scroll at bottom for new messages
-        if (scrollOffset == 0) {
-            // Already at bottom, stay there
-        }
+    private String currentSessionId() {
+        SessionInfo session = OpenCodeMod.getClient().getCurrentSession();
+        return session != null ? session.getId() : null;
     }
 
     /**
-     * Renders a formatted line with multiple colored segments, clipped to max width
+     * Number of transcript lines that fit in the message area, matching renderTerminal
      */
-    private void renderFormattedLine(GuiGraphics guiGraphics, FormattedLine line, int x, int y, int maxWidth) {
-        int currentX = x;
-
-        // Add indentation for code blocks and lists
-        for (int i = 0; i < line.getIndentLevel(); i++) {
-            currentX += this.font.width("  ");
-        }
+    private int getMaxVisibleLines() {
+        int availableHeight = (this.height - 40 - 40 - 24);
+        int lineHeight = this.font.lineHeight + 2;
+        return Math.max(1, availableHeight / lineHeight);
+    }
 
-        // Draw each segment with boundary checking
-        for (TextSegment segment : line.getSegments()) {
-            String text = segment.getText();
-            int color = segment.getEffectiveColor();
-
-            // Check if we have space left
-            int remainingWidth = (x + maxWidth) - currentX;
-            if (remainingWidth <= 0) break;
-
-            // Truncate text if it's too long
-            int textWidth = this.font.width(text);
-            if (textWidth > remainingWidth) {
-                // Find how much of the text fits
-                String truncated = text;
-                while (this.font.width(truncated + "...") > remainingWidth && truncated.length() > 0) {
-                    truncated = truncated.substring(0, truncated.length() - 1);
-                }
-                text = truncated + "...";
-            }
+    /**
+     * Width of the message area, matching the margins used in renderTerminal
+     */
+    private int getMessageWidth() {
+        return getMessageWidth(this.width);
+    }
 
-            guiGraphics.drawString(this.font, text, currentX, y, color, false);
-            currentX += this.font.width(text);
-        }
+    /**
+     * Width of the message area for a screen width, used to lay transcripts out before the
+     * terminal is opened
+     */
+    public static int getMessageWidth(int screenWidth) {
+        int borderThickness = 2;
+        int terminalWidth = screenWidth - 40;
+        return terminalWidth - 2 * (borderThickness + 8);
     }
 
     @Override
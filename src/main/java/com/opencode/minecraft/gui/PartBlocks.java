@@ -0,0 +1,130 @@
+package com.opencode.minecraft.gui;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.opencode.minecraft.gui.markdown.FormattedLine;
+import com.opencode.minecraft.gui.markdown.MarkdownParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the collapsed header and the expanded body of tool-call and reasoning parts.
+ *
+ * Headers only read a few small fields. Bodies read the tool input and output and are
+ * only built when a block is expanded.
+ */
+final class PartBlocks {
+    private static final Gson PRETTY = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final int COLOR_TOOL = 0xFFcd853f;      // Peru
+    private static final int COLOR_REASONING = 0xFFbc8f8f; // Rosy brown
+    private static final int COLOR_LABEL = 0xFFffbf00;     // Amber
+    private static final int COLOR_OUTPUT = 0xFFd2691e;    // Copper, like code blocks
+    private static final int COLOR_RUNNING = 0xFFffd700;   // Golden yellow
+    private static final int COLOR_DONE = 0xFF9acd32;      // Yellow green
+    private static final int COLOR_ERROR = 0xFFdc143c;     // Crimson red
+
+    private PartBlocks() {
+    }
+
+    /**
+     * Returns true for part types shown as collapsible blocks
+     */
+    static boolean isBlockPart(String type) {
+        return "tool".equals(type) || "reasoning".equals(type);
+    }
+
+    /**
+     * Returns true while a reasoning part is streaming or a tool call hasn't finished
+     */
+    static boolean isRunning(JsonObject part) {
+        if ("reasoning".equals(getString(part, "type"))) {
+            JsonObject time = part.has("time") ? part.getAsJsonObject("time") : null;
+            return time == null || !time.has("end");
+        }
+        JsonObject state = part.has("state") ? part.getAsJsonObject("state") : new JsonObject();
+        String status = getString(state, "status");
+        return "pending".equals(status) || "running".equals(status);
+    }
+
+    static FormattedLine header(JsonObject part) {
+        FormattedLine line = new FormattedLine();
+        if ("reasoning".equals(getString(part, "type"))) {
+            String text = getString(part, "text");
+            line.addSegment("[THINKING] ", COLOR_REASONING);
+            line.addSegment((text != null ? text.length() : 0) + " chars", COLOR_REASONING);
+            return line;
+        }
+
+        JsonObject state = part.has("state") ? part.getAsJsonObject("state") : new JsonObject();
+        String status = getString(state, "status");
+        String title = getString(state, "title");
+
+        line.addSegment("[TOOL] " + getString(part, "tool"), COLOR_TOOL);
+        if (status != null) {
+            line.addSegment(" " + status, statusColor(status));
+        }
+        if (title != null && !title.isEmpty()) {
+            line.addSegment(" " + title, COLOR_TOOL);
+        }
+        return line;
+    }
+
+    static List<FormattedLine> body(JsonObject part) {
+        if ("reasoning".equals(getString(part, "type"))) {
+            String text = getString(part, "text");
+            return MarkdownParser.parse(text != null ? text : "", COLOR_REASONING);
+        }
+
+        List<FormattedLine> lines = new ArrayList<>();
+        JsonObject state = part.has("state") ? part.getAsJsonObject("state") : new JsonObject();
+
+        JsonElement input = state.get("input");
+        if (input != null && !input.isJsonNull()) {
+            lines.add(label("Input"));
+            // Pretty JSON never starts a line with a fence, so it can go through markdown for highlighting
+            lines.addAll(MarkdownParser.parse("```json\n" + PRETTY.toJson(input) + "\n```", COLOR_OUTPUT));
+        }
+
+        // Output is shown verbatim; it may contain fences of its own
+        String output = getString(state, "output");
+        if (output != null) {
+            lines.add(label("Output"));
+            for (String outputLine : output.split("\n", -1)) {
+                FormattedLine line = new FormattedLine(new ArrayList<>(), true, 1);
+                line.addSegment(outputLine, COLOR_OUTPUT);
+                lines.add(line);
+            }
+        }
+
+        String error = getString(state, "error");
+        if (error != null) {
+            FormattedLine line = new FormattedLine(new ArrayList<>(), false, 1);
+            line.addSegment("Error: " + error, COLOR_ERROR);
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private static FormattedLine label(String text) {
+        FormattedLine line = new FormattedLine(new ArrayList<>(), false, 1);
+        line.addSegment(text, COLOR_LABEL);
+        return line;
+    }
+
+    private static int statusColor(String status) {
+        return switch (status) {
+            case "completed" -> COLOR_DONE;
+            case "error" -> COLOR_ERROR;
+            default -> COLOR_RUNNING;
+        };
+    }
+
+    private static String getString(JsonObject object, String key) {
+        JsonElement element = object.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+}
@@ -0,0 +1,639 @@
+package com.opencode.minecraft.gui;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.client.OpenCodeClient;
+import com.opencode.minecraft.client.session.SessionInfo;
+import com.opencode.minecraft.gui.layout.LayoutLine;
+import com.opencode.minecraft.gui.layout.TextLayout;
+import com.opencode.minecraft.gui.markdown.FormattedLine;
+import com.opencode.minecraft.gui.markdown.MarkdownParser;
+import com.opencode.minecraft.perf.FrameBudget;
+import com.opencode.minecraft.perf.Subsystem;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.components.EditBox;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.network.chat.Component;
+import org.lwjgl.glfw.GLFW;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Session browser: the server's sessions as a filterable, sortable list with a preview of
+ * the highlighted session's last message.
+ *
+ * The list is virtualized: only visible rows are drawn, and a row's text is fitted to the
+ * width when it first scrolls into view. Fetched sessions are taken into the list a page per
+ * tick, so hundreds of sessions never cost one long frame. Once the highlight has settled,
+ * the latest messages of the highlighted row and its neighbours are fetched for previews;
+ * previews are parsed and laid out on tick, render only draws them.
+ */
+public class SessionBrowserScreen extends Screen {
+
+    // Same autumn theme as the terminal
+    private static final int BACKGROUND_COLOR = 0xE01a1210; // Dark warm brown (semi-transparent)
+    private static final int BORDER_COLOR = 0xFFff8c42; // Burnt orange border
+    private static final int TEXT_COLOR = 0xFFfff8dc; // Warm white (cornsilk)
+    private static final int DIM_COLOR = 0xFFa0826d; // Faded copper
+    private static final int INFO_COLOR = 0xFFffbf00; // Amber
+    private static final int SELECTED_COLOR = 0x80b7410e; // Translucent rust
+    private static final int INPUT_BACKGROUND = 0xFF4a2f1e;
+
+    // Sessions taken into the list per tick
+    private static final int PAGE_SIZE = 50;
+    private static final int PREVIEW_CACHE_SIZE = 32;
+
+    // Ticks the highlight must stay on a row before previews are fetched, and how many of
+    // a session's latest messages are fetched for its preview
+    private static final int PREFETCH_DELAY_TICKS = 4;
+    private static final int PREVIEW_MESSAGES = 5;
+
+    private static final int MARGIN = 20;
+    private static final int PADDING = 10;
+    private static final int LIST_TOP = MARGIN + 48;
+
+    private EditBox filterField;
+
+    // Fetched sessions and how many of them are in the list so far
+    private List<SessionInfo> source = List.of();
+    private int ingested = 0;
+    private final List<SessionInfo> loaded = new ArrayList<>();
+    private final Map<String, Integer> numbers = new HashMap<>();
+    private boolean fetching = false;
+    private String status = null;
+
+    // Filtered and sorted view of the loaded sessions
+    private List<SessionInfo> view = List.of();
+    private String filter = "";
+    private Sort sort = Sort.UPDATED;
+    private int selected = 0;
+    private int scrollTop = 0;
+    private String settlingOn = null;
+    private int settledTicks = 0;
+
+    // Row text fitted to the list width, by session ID
+    private final Map<String, String> rowTitles = new HashMap<>();
+    private int rowTitleWidth = -1;
+
+    private final Map<String, Preview> previews = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Preview> eldest) {
+            return size() > PREVIEW_CACHE_SIZE;
+        }
+    };
+
+    public SessionBrowserScreen() {
+        super(Component.literal("OpenCode Sessions"));
+    }
+
+    @Override
+    protected void init() {
+        super.init();
+
+        this.filterField = new EditBox(this.font, MARGIN + PADDING + 40, MARGIN + 26,
+                getListWidth() - 40, 14, Component.literal("Filter"));
+        this.filterField.setMaxLength(200);
+        this.filterField.setBordered(false);
+        this.filterField.setTextColor(TEXT_COLOR);
+        this.filterField.setValue(filter);
+        this.filterField.setResponder(this::onFilterChanged);
+        this.addRenderableWidget(this.filterField);
+        this.setInitialFocus(this.filterField);
+
+        // init runs again on resize; only fetch once
+        if (!fetching && source.isEmpty()) {
+            load();
+        }
+    }
+
+    /**
+     * Shows the cached session list right away and fetches a fresh one
+     */
+    private void load() {
+        OpenCodeClient client = OpenCodeMod.getClient();
+        setSource(client.getSessionIndex().getSessions());
+        if (!client.isReady()) {
+            status = "Not connected to OpenCode server";
+            return;
+        }
+
+        fetching = true;
+        client.listSessions()
+                .thenAccept(sessions -> Minecraft.getInstance().execute(() -> {
+                    fetching = false;
+                    setSource(sessions);
+                }))
+                .exceptionally(e -> {
+                    Minecraft.getInstance().execute(() -> {
+                        fetching = false;
+                        status = "Failed to load sessions: " + e.getMessage();
+                    });
+                    return null;
+                });
+    }
+
+    private void setSource(List<SessionInfo> sessions) {
+        source = sessions;
+        ingested = 0;
+        loaded.clear();
+        numbers.clear();
+        rowTitles.clear();
+        // List numbers, the same ones /oc session use accepts
+        for (int i = 0; i < sessions.size(); i++) {
+            numbers.put(sessions.get(i).getId(), i + 1);
+        }
+        ingestPage();
+    }
+
+    @Override
+    public void tick() {
+        super.tick();
+        if (ingested < source.size()) {
+            ingestPage();
+        }
+
+        // Holding an arrow key doesn't fetch every row passed
+        SessionInfo session = getSelected();
+        String selectedId = session != null ? session.getId() : null;
+        if (!Objects.equals(selectedId, settlingOn)) {
+            settlingOn = selectedId;
+            settledTicks = 0;
+        }
+        if (selectedId != null && ++settledTicks == PREFETCH_DELAY_TICKS) {
+            for (int i = selected - 1; i <= selected + 1; i++) {
+                if (i >= 0 && i < view.size()) {
+                    requestPreview(view.get(i).getId());
+                }
+            }
+        }
+        layoutPreview();
+    }
+
+    private void ingestPage() {
+        int end = Math.min(source.size(), ingested + PAGE_SIZE);
+        loaded.addAll(source.subList(ingested, end));
+        ingested = end;
+        rebuildView();
+    }
+
+    private void onFilterChanged(String value) {
+        filter = value.toLowerCase(Locale.ROOT);
+        scrollTop = 0;
+        rebuildView();
+    }
+
+    /**
+     * Filters and sorts the loaded sessions, keeping the highlighted session selected
+     */
+    private void rebuildView() {
+        String selectedId = getSelected() != null ? getSelected().getId() : null;
+
+        List<SessionInfo> next = new ArrayList<>();
+        for (SessionInfo session : loaded) {
+            if (filter.isEmpty()
+                    || session.getTitle().toLowerCase(Locale.ROOT).contains(filter)
+                    || session.getDirectory().toLowerCase(Locale.ROOT).contains(filter)) {
+                next.add(session);
+            }
+        }
+        next.sort(sort.comparator);
+        view = next;
+
+        selected = 0;
+        if (selectedId != null) {
+            for (int i = 0; i < view.size(); i++) {
+                if (view.get(i).getId().equals(selectedId)) {
+                    selected = i;
+                    break;
+                }
+            }
+        }
+        select(selected);
+    }
+
+    private SessionInfo getSelected() {
+        return selected >= 0 && selected < view.size() ? view.get(selected) : null;
+    }
+
+    /**
+     * Highlights a row and scrolls it into view
+     */
+    private void select(int index) {
+        selected = Math.max(0, Math.min(view.size() - 1, index));
+        int rows = getVisibleRows();
+        if (selected < scrollTop) {
+            scrollTop = selected;
+        } else if (selected >= scrollTop + rows) {
+            scrollTop = selected - rows + 1;
+        }
+        scrollTop = Math.max(0, Math.min(scrollTop, view.size() - rows));
+    }
+
+    private void requestPreview(String sessionId) {
+        // A failed preview is fetched again the next time the highlight settles near it
+        Preview existing = previews.get(sessionId);
+        if (existing != null && existing.error == null) return;
+
+        Preview preview = new Preview();
+        previews.put(sessionId, preview);
+        OpenCodeMod.getClient().getSessionMessages(sessionId, PREVIEW_MESSAGES)
+                .thenAccept(messages -> {
+                    String text = lastMessageText(messages);
+                    Minecraft.getInstance().execute(() -> {
+                        preview.setText(text);
+                        layoutPreview();
+                    });
+                })
+                .exceptionally(e -> {
+                    Minecraft.getInstance().execute(() -> preview.error = "Failed to load preview: " + e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Lays out the highlighted session's preview for the pane's current size, if needed
+     */
+    private void layoutPreview() {
+        SessionInfo session = getSelected();
+        Preview preview = session != null ? previews.get(session.getId()) : null;
+        if (preview != null && this.font != null) {
+            preview.layout(OpenCodeMod.getClient().getTextLayout(), getPreviewWidth(), getPreviewMaxLines());
+        }
+    }
+
+    /**
+     * Gets the text parts of the last message that has any, prefixed like the terminal
+     */
+    private static String lastMessageText(JsonArray messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            JsonObject message = messages.get(i).getAsJsonObject();
+            if (!message.has("parts")) continue;
+
+            StringBuilder text = new StringBuilder();
+            for (JsonElement partElement : message.getAsJsonArray("parts")) {
+                JsonObject part = partElement.getAsJsonObject();
+                if (part.has("type") && "text".equals(part.get("type").getAsString()) && part.has("text")) {
+                    if (text.length() > 0) text.append('\n');
+                    text.append(part.get("text").getAsString());
+                }
+            }
+            if (text.length() == 0) continue;
+
+            JsonObject info = message.has("info") ? message.getAsJsonObject("info") : null;
+            boolean user = info != null && info.has("role") && "user".equals(info.get("role").getAsString());
+            return (user ? "[YOU] " : "[OPENCODE] ") + text;
+        }
+        return "";
+    }
+
+    @Override
+    public void render(GuiGraphics guiGraphics, int mouseX, int mouseY, float partialTick) {
+        FrameBudget budget = OpenCodeMod.getFrameBudget();
+        long start = budget.begin();
+        try {
+            renderBrowser(guiGraphics, mouseX, mouseY, partialTick);
+        } finally {
+            budget.end(Subsystem.GUI_RENDER, start);
+        }
+    }
+
+    private void renderBrowser(GuiGraphics guiGraphics, int mouseX, int mouseY, float partialTick) {
+        renderBackground(guiGraphics, mouseX, mouseY, partialTick);
+
+        int frameWidth = this.width - 2 * MARGIN;
+        int frameHeight = this.height - 2 * MARGIN;
+        guiGraphics.fill(0, 0, this.width, this.height, 0xFF1a1210);
+        guiGraphics.fill(MARGIN, MARGIN, MARGIN + frameWidth, MARGIN + frameHeight, BACKGROUND_COLOR);
+        drawBorder(guiGraphics, MARGIN, MARGIN, frameWidth, frameHeight);
+
+        // Title and list state
+        int left = MARGIN + PADDING;
+        guiGraphics.drawString(this.font, "OpenCode Sessions", left, MARGIN + 8, BORDER_COLOR, false);
+        String info = view.size() + (view.size() != loaded.size() ? " of " + loaded.size() : "") + " sessions"
+                + (ingested < source.size() || fetching ? ", loading..." : "")
+                + "  |  sort: " + sort.label + " (Tab)";
+        guiGraphics.drawString(this.font, info, MARGIN + frameWidth - PADDING - this.font.width(info), MARGIN + 8, INFO_COLOR, false);
+
+        // Filter input
+        guiGraphics.drawString(this.font, "Filter", left, MARGIN + 26, BORDER_COLOR, false);
+        guiGraphics.fill(left + 36, MARGIN + 23, left + getListWidth(), MARGIN + 37, INPUT_BACKGROUND);
+
+        renderRows(guiGraphics, left);
+        renderPreview(guiGraphics, getPreviewLeft());
+
+        if (status != null) {
+            guiGraphics.drawString(this.font, status, left, MARGIN + frameHeight - 14, INFO_COLOR, false);
+        } else {
+            String hint = "Enter: open  |  Up/Down: select  |  Esc: close";
+            guiGraphics.drawString(this.font, hint, left, MARGIN + frameHeight - 14, DIM_COLOR, false);
+        }
+
+        super.render(guiGraphics, mouseX, mouseY, partialTick);
+    }
+
+    /**
+     * Draws the visible rows only; row titles are fitted once per width and cached
+     */
+    private void renderRows(GuiGraphics guiGraphics, int left) {
+        int listWidth = getListWidth();
+        int rowHeight = getRowHeight();
+        int rows = getVisibleRows();
+        long now = System.currentTimeMillis();
+
+        if (rowTitleWidth != listWidth) {
+            rowTitles.clear();
+            rowTitleWidth = listWidth;
+        }
+
+        if (view.isEmpty()) {
+            String empty = fetching || ingested < source.size() ? "Loading sessions..." : "No sessions found";
+            guiGraphics.drawString(this.font, empty, left, LIST_TOP + 2, DIM_COLOR, false);
+            return;
+        }
+
+        String currentId = OpenCodeMod.getClient().getCurrentSession() != null
+                ? OpenCodeMod.getClient().getCurrentSession().getId() : null;
+        int end = Math.min(view.size(), scrollTop + rows);
+        for (int i = scrollTop; i < end; i++) {
+            SessionInfo session = view.get(i);
+            int y = LIST_TOP + (i - scrollTop) * rowHeight;
+            if (i == selected) {
+                guiGraphics.fill(left - 2, y - 2, left + listWidth, y + rowHeight - 2, SELECTED_COLOR);
+            }
+
+            String age = formatAge(session.getUpdatedAt(), now);
+            int ageWidth = this.font.width(age);
+            String title = rowTitles.computeIfAbsent(session.getId(), id -> {
+                Integer number = numbers.get(id);
+                String current = id.equals(currentId) ? " (current)" : "";
+                return fitToWidth((number != null ? number + ". " : "") + session.getTitle() + current,
+                        listWidth - ageWidth - 12);
+            });
+            guiGraphics.drawString(this.font, title, left, y, session.getId().equals(currentId) ? INFO_COLOR : TEXT_COLOR, false);
+            guiGraphics.drawString(this.font, age, left + listWidth - ageWidth - 4, y, DIM_COLOR, false);
+        }
+
+        // Scroll position
+        if (view.size() > rows) {
+            String position = (scrollTop + 1) + "-" + end + " / " + view.size();
+            guiGraphics.drawString(this.font, position, left + listWidth - this.font.width(position) - 4,
+                    LIST_TOP + rows * rowHeight + 2, DIM_COLOR, false);
+        }
+    }
+
+    /**
+     * Draws the highlighted session's details and as much of its last message as fits
+     */
+    private void renderPreview(GuiGraphics guiGraphics, int left) {
+        int width = getPreviewWidth();
+        int bottom = this.height - MARGIN - 20;
+        guiGraphics.fill(left - PADDING / 2, LIST_TOP - 2, left - PADDING / 2 + 1, bottom, BORDER_COLOR);
+
+        SessionInfo session = getSelected();
+        if (session == null || width < 40) return;
+
+        int y = LIST_TOP;
+        int lineHeight = this.font.lineHeight + 2;
+        guiGraphics.drawString(this.font, fitToWidth(session.getTitle(), width), left, y, BORDER_COLOR, false);
+        y += lineHeight;
+        guiGraphics.drawString(this.font, fitToWidth(session.getDirectory(), width), left, y, DIM_COLOR, false);
+        y += lineHeight;
+        guiGraphics.drawString(this.font, fitToWidth(session.getId() + "  |  updated "
+                + formatAge(session.getUpdatedAt(), System.currentTimeMillis()), width), left, y, DIM_COLOR, false);
+        y += lineHeight + 4;
+
+        // Laid out on tick; until then, or while the fetch runs, show a placeholder
+        Preview preview = previews.get(session.getId());
+        List<LayoutLine> lines = preview != null ? preview.getLines(width, getPreviewMaxLines()) : null;
+        if (preview != null && preview.error != null) {
+            guiGraphics.drawString(this.font, fitToWidth(preview.error, width), left, y, INFO_COLOR, false);
+            return;
+        }
+        if (preview != null && preview.text != null && preview.text.isEmpty()) {
+            guiGraphics.drawString(this.font, "No recent messages", left, y, DIM_COLOR, false);
+            return;
+        }
+        if (lines == null) {
+            guiGraphics.drawString(this.font, "Loading preview...", left, y, DIM_COLOR, false);
+            return;
+        }
+
+        for (LayoutLine line : lines) {
+            for (LayoutLine.Run run : line.runs()) {
+                guiGraphics.drawString(this.font, run.text(), left + run.x(), y, run.color(), false);
+            }
+            y += lineHeight;
+        }
+    }
+
+    private void drawBorder(GuiGraphics guiGraphics, int x, int y, int width, int height) {
+        int borderThickness = 2;
+        guiGraphics.fill(x, y, x + width, y + borderThickness, BORDER_COLOR);
+        guiGraphics.fill(x, y + height - borderThickness, x + width, y + height, BORDER_COLOR);
+        guiGraphics.fill(x, y, x + borderThickness, y + height, BORDER_COLOR);
+        guiGraphics.fill(x + width - borderThickness, y, x + width, y + height, BORDER_COLOR);
+    }
+
+    @Override
+    public boolean keyPressed(int keyCode, int scanCode, int modifiers) {
+        int rows = getVisibleRows();
+        switch (keyCode) {
+            case GLFW.GLFW_KEY_UP -> select(selected - 1);
+            case GLFW.GLFW_KEY_DOWN -> select(selected + 1);
+            case GLFW.GLFW_KEY_PAGE_UP -> select(selected - rows);
+            case GLFW.GLFW_KEY_PAGE_DOWN -> select(selected + rows);
+            case GLFW.GLFW_KEY_ENTER, GLFW.GLFW_KEY_KP_ENTER -> openSelected();
+            case GLFW.GLFW_KEY_TAB -> {
+                sort = Sort.values()[(sort.ordinal() + 1) % Sort.values().length];
+                rebuildView();
+            }
+            case GLFW.GLFW_KEY_ESCAPE -> this.onClose();
+            default -> {
+                return this.filterField.keyPressed(keyCode, scanCode, modifiers) || super.keyPressed(keyCode, scanCode, modifiers);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean mouseClicked(double mouseX, double mouseY, int button) {
+        int row = (int) Math.floor((mouseY - LIST_TOP + 2) / getRowHeight());
+        int left = MARGIN + PADDING;
+        if (button == 0 && row >= 0 && row < getVisibleRows() && mouseX >= left && mouseX < left + getListWidth()) {
+            int index = scrollTop + row;
+            if (index < view.size()) {
+                // Click to highlight, click the highlighted row to open it
+                if (index == selected) {
+                    openSelected();
+                } else {
+                    select(index);
+                }
+                return true;
+            }
+        }
+        return super.mouseClicked(mouseX, mouseY, button);
+    }
+
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double deltaX, double deltaY) {
+        int maxScroll = Math.max(0, view.size() - getVisibleRows());
+        if (deltaY > 0) {
+            scrollTop = Math.max(0, scrollTop - 1);
+        } else if (deltaY < 0) {
+            scrollTop = Math.min(maxScroll, scrollTop + 1);
+        }
+        return true;
+    }
+
+    /**
+     * Switches to the highlighted session and opens it in the terminal
+     */
+    private void openSelected() {
+        SessionInfo session = getSelected();
+        if (session == null) return;
+
+        status = "Opening " + session.getTitle() + "...";
+        OpenCodeMod.getClient().useSession(session.getId())
+                .thenAccept(opened -> Minecraft.getInstance().execute(() -> {
+                    if (Minecraft.getInstance().screen == this) {
+                        Minecraft.getInstance().setScreen(new OpenCodeGuiScreen());
+                    }
+                }))
+                .exceptionally(e -> {
+                    Minecraft.getInstance().execute(() -> status = "Failed: " + e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Cuts text to a pixel width, ending it with "..." if anything was cut
+     */
+    private String fitToWidth(String text, int maxWidth) {
+        if (this.font.width(text) <= maxWidth) return text;
+
+        int ellipsis = this.font.width("...");
+        int low = 0;
+        int high = text.length();
+        while (low < high) {
+            int mid = (low + high + 1) / 2;
+            if (this.font.width(text.substring(0, mid)) + ellipsis <= maxWidth) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return text.substring(0, low) + "...";
+    }
+
+    private static String formatAge(long timestamp, long now) {
+        if (timestamp <= 0) return "";
+        long minutes = (now - timestamp) / 60_000;
+        if (minutes < 1) return "just now";
+        if (minutes < 60) return minutes + "m ago";
+        if (minutes < 60 * 24) return (minutes / 60) + "h ago";
+        return (minutes / (60 * 24)) + "d ago";
+    }
+
+    private int getListWidth() {
+        return (this.width - 2 * MARGIN - 3 * PADDING) * 3 / 5;
+    }
+
+    private int getPreviewLeft() {
+        return MARGIN + PADDING + getListWidth() + PADDING;
+    }
+
+    private int getPreviewWidth() {
+        return this.width - MARGIN - PADDING - getPreviewLeft();
+    }
+
+    /**
+     * Lines of message text that fit below the preview's three header lines
+     */
+    private int getPreviewMaxLines() {
+        int lineHeight = this.font.lineHeight + 2;
+        int top = LIST_TOP + 3 * lineHeight + 4;
+        int bottom = this.height - MARGIN - 20;
+        return Math.max(0, (bottom - top) / lineHeight);
+    }
+
+    private int getRowHeight() {
+        return this.font.lineHeight + 4;
+    }
+
+    private int getVisibleRows() {
+        int listHeight = this.height - MARGIN - 34 - LIST_TOP;
+        return Math.max(1, listHeight / getRowHeight());
+    }
+
+    @Override
+    public boolean isPauseScreen() {
+        return false; // Don't pause the game
+    }
+
+    private enum Sort {
+        UPDATED("updated", Comparator.comparingLong(SessionInfo::getUpdatedAt).reversed()),
+        TITLE("title", Comparator.comparing(session -> session.getTitle().toLowerCase(Locale.ROOT))),
+        DIRECTORY("directory", Comparator.comparing((SessionInfo session) -> session.getDirectory().toLowerCase(Locale.ROOT))
+                .thenComparing(Comparator.comparingLong(SessionInfo::getUpdatedAt).reversed()));
+
+        final String label;
+        final Comparator<SessionInfo> comparator;
+
+        Sort(String label, Comparator<SessionInfo> comparator) {
+            this.label = label;
+            this.comparator = comparator;
+        }
+    }
+
+    /**
+     * Last message of a session: parsed when it arrives, laid out on tick and only as far
+     * as the pane shows
+     */
+    private static class Preview {
+        String text = null;
+        String error = null;
+        private List<FormattedLine> parsed = null;
+        private List<LayoutLine> lines = null;
+        private int width = -1;
+        private int maxLines = -1;
+
+        void setText(String text) {
+            this.text = text;
+            this.parsed = MarkdownParser.parse(text, TEXT_COLOR);
+            this.lines = null;
+        }
+
+        /**
+         * Gets the lines laid out for this size, or null if they haven't been yet
+         */
+        List<LayoutLine> getLines(int width, int maxLines) {
+            return lines != null && this.width == width && this.maxLines == maxLines ? lines : null;
+        }
+
+        void layout(TextLayout layout, int width, int maxLines) {
+            if (parsed == null || getLines(width, maxLines) != null) return;
+
+            List<LayoutLine> out = new ArrayList<>();
+            for (FormattedLine line : parsed) {
+                for (LayoutLine wrapped : layout.wrap(line, width)) {
+                    if (out.size() >= maxLines) break;
+                    out.add(wrapped);
+                }
+                if (out.size() >= maxLines) break;
+            }
+            this.lines = out;
+            this.width = width;
+            this.maxLines = maxLines;
+        }
+    }
+}
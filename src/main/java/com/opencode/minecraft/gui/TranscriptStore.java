@@ -0,0 +1,468 @@
+package com.opencode.minecraft.gui;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.gui.layout.TextLayout;
+import com.opencode.minecraft.gui.markdown.FormattedLine;
+import com.opencode.minecraft.gui.markdown.MarkdownParser;
+import com.opencode.minecraft.gui.markdown.StreamingMarkdownParser;
+import com.opencode.minecraft.gui.transcript.CollapsibleBlock;
+import com.opencode.minecraft.gui.transcript.Transcript;
+import com.opencode.minecraft.gui.transcript.TranscriptMessage;
+import com.opencode.minecraft.gui.transcript.TranscriptPart;
+import com.opencode.minecraft.perf.FrameBudget;
+import com.opencode.minecraft.perf.Subsystem;
+import com.opencode.minecraft.perf.jfr.JfrEvents;
+import com.opencode.minecraft.perf.jfr.TranscriptParseEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The live terminal transcript of one session, owned by the client rather than the screen.
+ *
+ * It consumes text deltas, tool and reasoning parts and prompts whether or not the
+ * terminal is open, and keeps its lines wrapped for the last known width, so opening
+ * {@code /oc gui} only attaches a view to it: no refetch and no re-parse.
+ *
+ * The stored history is loaded once, when the store is created. Live updates that arrive
+ * before it has loaded are queued and applied after it, so they keep their order. A text
+ * part the history caught mid-response keeps streaming into the same part: only the part
+ * of each delta the history already covered is dropped.
+ *
+ * Client-thread only.
+ */
+public class TranscriptStore {
+    private final String sessionId;
+    private final Transcript transcript;
+    private boolean historyLoaded;
+    private final List<Runnable> pendingLive = new ArrayList<>();
+    // Text of the assistant text parts from the history, with any deltas applied since
+    private final Map<String, StringBuilder> historyText = new HashMap<>();
+    private volatile Runnable appendListener = null;
+
+    // Text and block parts by part ID: search hits are mapped through the first,
+    // tool and reasoning updates through the second
+    private final Map<String, TranscriptPart> textParts = new HashMap<>();
+    private final Map<String, CollapsibleBlock> blocksById = new HashMap<>();
+
+    // The assistant message of the current response; text and block parts are added to it
+    private boolean receivingResponse = false;
+    private TranscriptMessage responseMessage = null;
+    private boolean responseHasText = false;
+
+    // The streaming text, its transcript part, and how many of its finished lines the part holds
+    private StreamingMarkdownParser streamingText = null;
+    private TranscriptPart streamingPart = null;
+    private String streamingPartId = null;
+    private int streamingShownCommitted = 0;
+    private final Runnable relayoutTask = this::relayoutStreamingText;
+
+    /**
+     * Creates the store of a session. The header is shown right away; call
+     * {@link #onHistoryLoaded} or {@link #onHistoryFailed} once the history fetch finishes.
+     */
+    public TranscriptStore(String sessionId, int maxResidentLines) {
+        this(sessionId, maxResidentLines, false);
+
+        addSystemMessage("[SYSTEM] OpenCode Terminal v1.0", 0xFFff8c42); // Burnt orange
+        addSystemMessage("", 0xFFffbf00);
+        addSystemMessage("[SYSTEM] Loading session: " + sessionId, 0xFFffbf00); // Amber
+        addSystemMessage("", 0xFFffbf00);
+    }
+
+    /**
+     * Creates a detached store that only tells the user to pick a session
+     */
+    public static TranscriptStore withoutSession(int maxResidentLines) {
+        TranscriptStore store = new TranscriptStore(null, maxResidentLines, true);
+        store.addSystemMessage("[SYSTEM] OpenCode Terminal v1.0", 0xFFff8c42); // Burnt orange
+        store.addSystemMessage("", 0xFFffbf00);
+        store.addSystemMessage("[SYSTEM] No active session", 0xFFffbf00); // Amber
+        store.addSystemMessage("[SYSTEM] Run '/oc session new' to create a session", 0xFFffbf00);
+        store.addSystemMessage("", 0xFFffbf00);
+        return store;
+    }
+
+    private TranscriptStore(String sessionId, int maxResidentLines, boolean historyLoaded) {
+        this.sessionId = sessionId;
+        this.transcript = new Transcript(maxResidentLines);
+        this.historyLoaded = historyLoaded;
+    }
+
+    /**
+     * Sets the layout engine and width; lines are only wrapped again if either changed
+     */
+    public void setLayout(TextLayout layout, int width) {
+        transcript.setLayout(layout, width);
+    }
+
+    /**
+     * Sets a listener called whenever new content is appended (for the attached GUI)
+     */
+    public void setAppendListener(Runnable listener) {
+        this.appendListener = listener;
+    }
+
+    public Transcript getTranscript() {
+        return transcript;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Gets the transcript part showing a text part, or null if it isn't shown
+     */
+    public TranscriptPart getTextPart(String partId) {
+        return textParts.get(partId);
+    }
+
+    /**
+     * Adds the stored messages, then applies the live updates that arrived meanwhile
+     */
+    public void onHistoryLoaded(JsonArray messages) {
+        if (historyLoaded) return;
+
+        if (messages.size() == 0) {
+            addSystemMessage("[SYSTEM] No messages in session yet", 0xFFffbf00); // Amber
+            addSystemMessage("[SYSTEM] Type your prompt below to start", 0xFFffbf00);
+            addSystemMessage("", 0xFFffbf00);
+        } else {
+            addSystemMessage("[SYSTEM] Loaded " + messages.size() + " messages", 0xFFffbf00); // Amber
+            addSystemMessage("", 0xFFffbf00);
+
+            // Parse and display each message
+            for (JsonElement msgElement : messages) {
+                addHistoryMessage(msgElement.getAsJsonObject());
+            }
+        }
+        finishHistory();
+    }
+
+    public void onHistoryFailed(Throwable e) {
+        if (historyLoaded) return;
+
+        addSystemMessage("[ERROR] Failed to load messages: " + e.getMessage(), 0xFFdc143c); // Crimson red
+        addSystemMessage("", 0xFFffbf00);
+        finishHistory();
+    }
+
+    private void finishHistory() {
+        historyLoaded = true;
+        for (Runnable update : pendingLive) {
+            update.run();
+        }
+        pendingLive.clear();
+        notifyAppend();
+    }
+
+    /**
+     * Runs a live update now, or after the history if it is still loading
+     */
+    private boolean deferUntilLoaded(Runnable update) {
+        if (historyLoaded) return false;
+        pendingLive.add(update);
+        return true;
+    }
+
+    /**
+     * Called when a text delta arrives via SSE. {@code end} is the length of the part's text
+     * including the delta, or -1 if the event didn't carry it.
+     */
+    public void onTextDelta(String partId, String delta, int end) {
+        onTextDelta(partId, delta, end, false);
+    }
+
+    private void onTextDelta(String partId, String delta, int end, boolean queued) {
+        if (deferUntilLoaded(() -> onTextDelta(partId, delta, end, true))) return;
+
+        String text = delta;
+        StringBuilder shown = partId != null ? historyText.get(partId) : null;
+        if (shown != null) {
+            // Drop what the history already showed; without an offset, assume queued
+            // deltas are in the history and live ones are not
+            int skip = end >= 0 ? shown.length() - (end - delta.length()) : queued ? delta.length() : 0;
+            if (skip >= delta.length()) return;
+            text = delta.substring(Math.max(0, skip));
+            if (!partId.equals(streamingPartId)) {
+                resumeHistoryPart(partId);
+            }
+            shown.append(text);
+        } else if (streamingPartId != null && partId != null && !partId.equals(streamingPartId)) {
+            // A new text part
+            endStreamingText();
+        }
+
+        if (streamingText == null) {
+            // Start of a new text part, the first one of a response gets the prefix
+            streamingText = new StreamingMarkdownParser(0xFFff8c00); // Dark orange for responses
+            if (!responseHasText) {
+                streamingText.append("[OPENCODE] ");
+                responseHasText = true;
+            }
+            streamingPart = addResponsePart();
+            streamingPart.setPinned(true);
+            streamingShownCommitted = 0;
+            streamingPartId = partId;
+        }
+        if (partId != null) {
+            textParts.putIfAbsent(partId, streamingPart);
+        }
+
+        // Append delta to current message, parsing only the lines it finishes
+        appendTimed(text);
+
+        // Update the last message line with the accumulated text, deferred if the frame is already busy
+        OpenCodeMod.getFrameBudget().runOrDefer(relayoutTask, relayoutTask);
+        notifyAppend();
+    }
+
+    /**
+     * Makes a text part from the history the streaming part again, seeded with its text
+     */
+    private void resumeHistoryPart(String partId) {
+        endStreamingText();
+
+        streamingText = new StreamingMarkdownParser(0xFFff8c00); // Dark orange for responses
+        appendTimed("[OPENCODE] " + historyText.get(partId));
+        streamingPart = textParts.get(partId);
+        streamingPart.setPinned(true);
+        streamingShownCommitted = 0;
+        streamingPartId = partId;
+
+        // Later blocks and text belong to the same response
+        receivingResponse = true;
+        responseHasText = true;
+        responseMessage = null;
+    }
+
+    /**
+     * Called when a tool or reasoning part changes. New parts become collapsed blocks after
+     * the text streamed so far; known ones update their header in place.
+     */
+    public void onPartUpdated(JsonObject part) {
+        if (deferUntilLoaded(() -> onPartUpdated(part))) return;
+        if (!part.has("id") || !PartBlocks.isBlockPart(part.has("type") ? part.get("type").getAsString() : "")) return;
+
+        String partId = part.get("id").getAsString();
+        CollapsibleBlock block = blocksById.get(partId);
+        if (block == null) {
+            // Text after the block goes into a new part
+            endStreamingText();
+            block = new CollapsibleBlock(addResponsePart(), PartBlocks.header(part), () -> PartBlocks.body(part));
+            blocksById.put(partId, block);
+            notifyAppend();
+            return;
+        }
+
+        // Reasoning updates with every delta; coalesce them per block when the frame is busy
+        CollapsibleBlock target = block;
+        OpenCodeMod.getFrameBudget().runOrDefer(target,
+                () -> target.update(PartBlocks.header(part), () -> PartBlocks.body(part), PartBlocks.isRunning(part)));
+    }
+
+    /**
+     * Called when a response completes (session goes to idle)
+     */
+    public void onResponseComplete() {
+        if (deferUntilLoaded(this::onResponseComplete)) return;
+
+        endStreamingText();
+
+        if (receivingResponse) {
+            // Add spacing after completed response
+            addSystemMessage("", 0xFFffbf00); // Amber
+            receivingResponse = false;
+            responseMessage = null;
+        }
+    }
+
+    /**
+     * Adds a prompt the user sent, from the terminal or from chat
+     */
+    public void addUserPrompt(String text) {
+        if (deferUntilLoaded(() -> addUserPrompt(text))) return;
+
+        // Reset response tracking
+        endStreamingText();
+        receivingResponse = false;
+        responseMessage = null;
+
+        transcript.addMessage(TranscriptMessage.Role.USER, parseTimed("[YOU] " + text, 0xFFffa07a)); // Light salmon for user input
+        addSystemMessage("", 0xFFffbf00); // Empty line for spacing
+    }
+
+    public void addSystemMessage(String message, int color) {
+        transcript.addMessage(TranscriptMessage.Role.SYSTEM, parseTimed(message, color));
+        notifyAppend();
+    }
+
+    private void notifyAppend() {
+        Runnable listener = appendListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Adds a part to the current response, starting the response if needed
+     */
+    private TranscriptPart addResponsePart() {
+        if (!receivingResponse) {
+            receivingResponse = true;
+            responseHasText = false;
+            responseMessage = null;
+        }
+        // Parts can only go to the last message; a system line may have been added in between
+        if (responseMessage == null || !transcript.isLastMessage(responseMessage)) {
+            responseMessage = transcript.addMessage(TranscriptMessage.Role.ASSISTANT);
+        }
+        return responseMessage.addPart();
+    }
+
+    /**
+     * Finishes the streaming text part, so the next delta starts a new one
+     */
+    private void endStreamingText() {
+        // Any pending re-layout must land first
+        OpenCodeMod.getFrameBudget().flush(relayoutTask);
+
+        streamingText = null;
+        streamingPartId = null;
+        if (streamingPart != null) {
+            streamingPart.setPinned(false);
+            streamingPart = null;
+        }
+    }
+
+    /**
+     * Re-lays out the streaming text: adds newly finished lines and replaces the unfinished
+     * tail, leaving earlier lines of the part in place
+     */
+    private void relayoutStreamingText() {
+        if (streamingText == null || streamingPart == null) return;
+
+        // Drop the previous tail lines
+        streamingPart.truncate(streamingShownCommitted);
+
+        List<FormattedLine> committed = streamingText.getCommittedLines();
+        streamingPart.addLines(committed.subList(streamingShownCommitted, committed.size()));
+        streamingShownCommitted = committed.size();
+
+        streamingPart.addLines(parseTailTimed());
+    }
+
+    private void addHistoryMessage(JsonObject message) {
+        // Get message info
+        JsonObject info = message.has("info") ? message.getAsJsonObject("info") : null;
+        if (info == null) return;
+
+        String role = info.has("role") ? info.get("role").getAsString() : "unknown";
+
+        // Get message parts
+        JsonArray parts = message.has("parts") ? message.getAsJsonArray("parts") : new JsonArray();
+
+        // Display based on role, text parts and collapsed tool/reasoning blocks
+        TranscriptMessage transcriptMessage = null;
+        for (JsonElement partElement : parts) {
+            JsonObject part = partElement.getAsJsonObject();
+            String type = part.has("type") ? part.get("type").getAsString() : "";
+            String partId = part.has("id") ? part.get("id").getAsString() : null;
+
+            if ("text".equals(type) && part.has("text")) {
+                String text = part.get("text").getAsString();
+
+                TranscriptPart transcriptPart = null;
+                if ("user".equals(role)) {
+                    if (transcriptMessage == null) transcriptMessage = transcript.addMessage(TranscriptMessage.Role.USER);
+                    transcriptPart = transcriptMessage.addPart();
+                    transcriptPart.setLines(parseTimed("[YOU] " + text, 0xFFffa07a)); // Light salmon
+                } else if ("assistant".equals(role)) {
+                    if (transcriptMessage == null) transcriptMessage = transcript.addMessage(TranscriptMessage.Role.ASSISTANT);
+                    transcriptPart = transcriptMessage.addPart();
+                    transcriptPart.setLines(parseTimed("[OPENCODE] " + text, 0xFFff8c00)); // Dark orange
+                }
+                if (transcriptPart != null && partId != null) {
+                    textParts.put(partId, transcriptPart);
+                    if ("assistant".equals(role)) {
+                        historyText.put(partId, new StringBuilder(text));
+                    }
+                }
+            } else if (PartBlocks.isBlockPart(type) && "assistant".equals(role)) {
+                // Collapsed until clicked; the body is built from the part then
+                if (transcriptMessage == null) transcriptMessage = transcript.addMessage(TranscriptMessage.Role.ASSISTANT);
+                CollapsibleBlock block = new CollapsibleBlock(transcriptMessage.addPart(), PartBlocks.header(part), () -> PartBlocks.body(part));
+                if (partId != null) {
+                    blocksById.put(partId, block);
+                }
+            }
+        }
+
+        // Add spacing after each message exchange
+        addSystemMessage("", 0xFFffbf00);
+    }
+
+    private List<FormattedLine> parseTimed(String text, int color) {
+        TranscriptParseEvent jfrEvent = null;
+        if (JfrEvents.isEnabled()) {
+            jfrEvent = new TranscriptParseEvent();
+            jfrEvent.sessionId = sessionId;
+            jfrEvent.chars = text.length();
+            jfrEvent.begin();
+        }
+
+        FrameBudget budget = OpenCodeMod.getFrameBudget();
+        long start = budget.begin();
+        List<FormattedLine> lines = null;
+        try {
+            lines = MarkdownParser.parse(text, color);
+            return lines;
+        } finally {
+            budget.end(Subsystem.MARKDOWN, start);
+            if (jfrEvent != null) {
+                jfrEvent.lines = lines != null ? lines.size() : 0;
+                jfrEvent.commit();
+            }
+        }
+    }
+
+    private void appendTimed(String delta) {
+        FrameBudget budget = OpenCodeMod.getFrameBudget();
+        long start = budget.begin();
+        try {
+            streamingText.append(delta);
+        } finally {
+            budget.end(Subsystem.MARKDOWN, start);
+        }
+    }
+
+    private List<FormattedLine> parseTailTimed() {
+        TranscriptParseEvent jfrEvent = null;
+        if (JfrEvents.isEnabled()) {
+            jfrEvent = new TranscriptParseEvent();
+            jfrEvent.sessionId = sessionId;
+            jfrEvent.chars = streamingText.length();
+            jfrEvent.begin();
+        }
+
+        FrameBudget budget = OpenCodeMod.getFrameBudget();
+        long start = budget.begin();
+        List<FormattedLine> lines = null;
+        try {
+            lines = streamingText.parseTail();
+            return lines;
+        } finally {
+            budget.end(Subsystem.MARKDOWN, start);
+            if (jfrEvent != null) {
+                jfrEvent.lines = lines != null ? lines.size() : 0;
+                jfrEvent.commit();
+            }
+        }
+    }
+}
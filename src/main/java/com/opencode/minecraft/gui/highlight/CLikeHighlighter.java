@@ -0,0 +1,125 @@
+package com.opencode.minecraft.gui.highlight;
+
+import java.util.Set;
+
+/**
+ * Highlighter for C-family languages (Java, TypeScript/JavaScript).
+ *
+ * Carries three multi-line constructs between lines: block comments, Java text blocks
+ * and TypeScript template strings.
+ */
+public class CLikeHighlighter extends SyntaxHighlighter {
+    private static final int IN_BLOCK_COMMENT = 1;
+    private static final int IN_TEXT_BLOCK = 2;
+    private static final int IN_TEMPLATE = 3;
+
+    public static final CLikeHighlighter JAVA = new CLikeHighlighter(Set.of(
+            "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class",
+            "const", "continue", "default", "do", "double", "else", "enum", "extends", "final",
+            "finally", "float", "for", "if", "implements", "import", "instanceof", "int",
+            "interface", "long", "native", "new", "package", "private", "protected", "public",
+            "record", "return", "sealed", "short", "static", "super", "switch", "synchronized",
+            "this", "throw", "throws", "transient", "try", "var", "void", "volatile", "while",
+            "yield", "true", "false", "null"), false);
+
+    public static final CLikeHighlighter TYPESCRIPT = new CLikeHighlighter(Set.of(
+            "abstract", "any", "as", "async", "await", "boolean", "break", "case", "catch",
+            "class", "const", "constructor", "continue", "declare", "default", "delete", "do",
+            "else", "enum", "export", "extends", "false", "finally", "for", "from", "function",
+            "get", "if", "implements", "import", "in", "instanceof", "interface", "keyof", "let",
+            "module", "namespace", "never", "new", "null", "number", "of", "private",
+            "protected", "public", "readonly", "return", "set", "static", "string", "super",
+            "switch", "this", "throw", "true", "try", "type", "typeof", "undefined", "unknown",
+            "var", "void", "while", "yield"), true);
+
+    private final Set<String> keywords;
+    private final boolean templateStrings;
+
+    private CLikeHighlighter(Set<String> keywords, boolean templateStrings) {
+        this.keywords = keywords;
+        this.templateStrings = templateStrings;
+    }
+
+    @Override
+    protected int lex(String line, int state, LineTokens tokens) {
+        int length = line.length();
+        int i = 0;
+
+        // Finish a construct left open by an earlier line
+        if (state != INITIAL_STATE) {
+            int end = switch (state) {
+                case IN_BLOCK_COMMENT -> closeAfter(line, 0, "*/");
+                case IN_TEXT_BLOCK -> closeAfter(line, 0, "\"\"\"");
+                default -> scanQuoted(line, 0, '`');
+            };
+            TokenType type = state == IN_BLOCK_COMMENT ? TokenType.COMMENT : TokenType.STRING;
+            if (end < 0) {
+                tokens.add(0, length, type);
+                return state;
+            }
+            tokens.add(0, end, type);
+            i = end;
+        }
+
+        while (i < length) {
+            char c = line.charAt(i);
+            int start = i;
+
+            if (c == '/' && i + 1 < length && line.charAt(i + 1) == '/') {
+                tokens.add(i, length, TokenType.COMMENT);
+                return INITIAL_STATE;
+            }
+            if (c == '/' && i + 1 < length && line.charAt(i + 1) == '*') {
+                int end = closeAfter(line, i + 2, "*/");
+                if (end < 0) {
+                    tokens.add(i, length, TokenType.COMMENT);
+                    return IN_BLOCK_COMMENT;
+                }
+                tokens.add(i, end, TokenType.COMMENT);
+                i = end;
+            } else if (!templateStrings && line.startsWith("\"\"\"", i)) {
+                int end = closeAfter(line, i + 3, "\"\"\"");
+                if (end < 0) {
+                    tokens.add(i, length, TokenType.STRING);
+                    return IN_TEXT_BLOCK;
+                }
+                tokens.add(i, end, TokenType.STRING);
+                i = end;
+            } else if (c == '"' || c == '\'' || (templateStrings && c == '`')) {
+                int end = scanQuoted(line, i + 1, c);
+                if (end < 0) {
+                    tokens.add(i, length, TokenType.STRING);
+                    return c == '`' ? IN_TEMPLATE : INITIAL_STATE;
+                }
+                tokens.add(i, end, TokenType.STRING);
+                i = end;
+            } else if (Character.isDigit(c)) {
+                i = scanNumber(line, i);
+                tokens.add(start, i, TokenType.NUMBER);
+            } else if (c == '@' && !templateStrings && i + 1 < length && Character.isJavaIdentifierStart(line.charAt(i + 1))) {
+                // Annotation
+                i = scanIdentifier(line, i + 1);
+                tokens.add(start, i, TokenType.TYPE);
+            } else if (Character.isJavaIdentifierStart(c)) {
+                i = scanIdentifier(line, i);
+                String word = line.substring(start, i);
+                if (keywords.contains(word)) {
+                    tokens.add(start, i, TokenType.KEYWORD);
+                } else if (Character.isUpperCase(c)) {
+                    tokens.add(start, i, TokenType.TYPE);
+                } else {
+                    tokens.add(start, i, TokenType.PLAIN);
+                }
+            } else {
+                i++;
+                tokens.add(start, i, TokenType.PLAIN);
+            }
+        }
+        return INITIAL_STATE;
+    }
+
+    private static int closeAfter(String line, int from, String close) {
+        int at = line.indexOf(close, from);
+        return at < 0 ? -1 : at + close.length();
+    }
+}
@@ -0,0 +1,53 @@
+package com.opencode.minecraft.gui.highlight;
+
+import com.opencode.minecraft.gui.markdown.TextSegment;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LRU cache of lexed code lines, keyed by highlighter, entry state and line text.
+ *
+ * The same lines come back again and again: a history reload re-parses every message, and
+ * a streaming code block re-parses its unfinished last line on every delta until it ends.
+ * Segments are immutable, so cached lists are shared between lines.
+ *
+ * Client-thread only.
+ */
+public final class HighlightCache {
+    private static final int MAX_ENTRIES = 1024;
+
+    private static final Map<Key, Result> CACHE = new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private HighlightCache() {
+    }
+
+    /**
+     * Highlights a line, appending its segments, and returns the state for the next line
+     */
+    public static int highlight(SyntaxHighlighter highlighter, String line, int state, List<TextSegment> out) {
+        Key key = new Key(highlighter, state, line);
+        Result result = CACHE.get(key);
+        if (result == null) {
+            List<TextSegment> segments = new ArrayList<>();
+            int next = highlighter.highlight(line, state, segments);
+            result = new Result(List.copyOf(segments), next);
+            CACHE.put(key, result);
+        }
+        out.addAll(result.segments());
+        return result.nextState();
+    }
+
+    private record Key(SyntaxHighlighter highlighter, int state, String line) {
+    }
+
+    private record Result(List<TextSegment> segments, int nextState) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.opencode.minecraft.gui.highlight;
+
+import java.util.Locale;
+
+/**
+ * Maps code block fence languages to highlighters
+ */
+public final class Highlighters {
+    private Highlighters() {
+    }
+
+    /**
+     * Gets the highlighter for a fence language tag, or null for languages shown as plain code
+     */
+    public static SyntaxHighlighter forLanguage(String language) {
+        return switch (language.toLowerCase(Locale.ROOT)) {
+            case "java" -> CLikeHighlighter.JAVA;
+            case "ts", "typescript", "tsx", "js", "javascript", "jsx", "mjs" -> CLikeHighlighter.TYPESCRIPT;
+            case "json", "jsonc" -> JsonHighlighter.INSTANCE;
+            case "sh", "bash", "shell", "zsh", "console" -> ShellHighlighter.INSTANCE;
+            default -> null;
+        };
+    }
+}
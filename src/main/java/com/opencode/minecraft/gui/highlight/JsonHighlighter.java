@@ -0,0 +1,50 @@
+package com.opencode.minecraft.gui.highlight;
+
+/**
+ * Highlighter for JSON. Keys and string values get different colors; JSON has no
+ * multi-line tokens, so the state is always the initial one.
+ */
+public class JsonHighlighter extends SyntaxHighlighter {
+    public static final JsonHighlighter INSTANCE = new JsonHighlighter();
+
+    private JsonHighlighter() {
+    }
+
+    @Override
+    protected int lex(String line, int state, LineTokens tokens) {
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            char c = line.charAt(i);
+            int start = i;
+
+            if (c == '"') {
+                int end = scanQuoted(line, i + 1, '"');
+                i = end < 0 ? length : end;
+                tokens.add(start, i, isKey(line, i) ? TokenType.KEY : TokenType.STRING);
+            } else if (c == '-' || Character.isDigit(c)) {
+                i = scanNumber(line, i + 1);
+                tokens.add(start, i, TokenType.NUMBER);
+            } else if (Character.isLetter(c)) {
+                i = scanIdentifier(line, i);
+                tokens.add(start, i, TokenType.KEYWORD);
+            } else {
+                i++;
+                tokens.add(start, i, TokenType.PLAIN);
+            }
+        }
+        return INITIAL_STATE;
+    }
+
+    /**
+     * A string is a key when the next non-blank character is a colon
+     */
+    private static boolean isKey(String line, int from) {
+        for (int i = from; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == ':') return true;
+            if (!Character.isWhitespace(c)) return false;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.opencode.minecraft.gui.highlight;
+
+import com.opencode.minecraft.gui.markdown.TextSegment;
+
+import java.util.List;
+
+/**
+ * Collects the tokens of one line into segments, merging neighbours of the same type so
+ * a line becomes as few segments as its colors need
+ */
+public class LineTokens {
+    private final String line;
+    private final List<TextSegment> out;
+    private int runStart = 0;
+    private int runEnd = 0;
+    private TokenType runType = null;
+    private boolean added = false;
+
+    LineTokens(String line, List<TextSegment> out) {
+        this.line = line;
+        this.out = out;
+    }
+
+    /**
+     * Adds {@code line[from, to)} as a token. Tokens must be added left to right.
+     */
+    public void add(int from, int to, TokenType type) {
+        if (from >= to) return;
+
+        if (type == runType && from == runEnd) {
+            runEnd = to;
+            return;
+        }
+        flush();
+        runStart = from;
+        runEnd = to;
+        runType = type;
+    }
+
+    void finish() {
+        flush();
+        if (!added) {
+            out.add(new TextSegment(line, TokenType.PLAIN.getColor()));
+        }
+    }
+
+    private void flush() {
+        if (runType != null) {
+            out.add(new TextSegment(line.substring(runStart, runEnd), runType.getColor()));
+            runType = null;
+            added = true;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.opencode.minecraft.gui.highlight;
+
+import java.util.Set;
+
+/**
+ * Highlighter for POSIX shell scripts and command lines.
+ * Quoted strings may span lines, which is the only state carried between lines.
+ */
+public class ShellHighlighter extends SyntaxHighlighter {
+    public static final ShellHighlighter INSTANCE = new ShellHighlighter();
+
+    private static final int IN_DOUBLE_QUOTE = 1;
+    private static final int IN_SINGLE_QUOTE = 2;
+
+    private static final Set<String> KEYWORDS = Set.of(
+            "if", "then", "else", "elif", "fi", "for", "while", "until", "do", "done", "case",
+            "esac", "in", "function", "return", "local", "export", "readonly", "source", "set",
+            "unset", "exit", "cd", "echo", "sudo");
+
+    private ShellHighlighter() {
+    }
+
+    @Override
+    protected int lex(String line, int state, LineTokens tokens) {
+        int length = line.length();
+        int i = 0;
+
+        if (state != INITIAL_STATE) {
+            char quote = state == IN_DOUBLE_QUOTE ? '"' : '\'';
+            int end = scanQuoted(line, 0, quote);
+            if (end < 0) {
+                tokens.add(0, length, TokenType.STRING);
+                return state;
+            }
+            tokens.add(0, end, TokenType.STRING);
+            i = end;
+        }
+
+        while (i < length) {
+            char c = line.charAt(i);
+            int start = i;
+            boolean wordStart = i == 0 || Character.isWhitespace(line.charAt(i - 1));
+
+            if (c == '#' && wordStart) {
+                tokens.add(i, length, TokenType.COMMENT);
+                return INITIAL_STATE;
+            }
+            if (c == '"' || c == '\'') {
+                int end = scanQuoted(line, i + 1, c);
+                if (end < 0) {
+                    tokens.add(i, length, TokenType.STRING);
+                    return c == '"' ? IN_DOUBLE_QUOTE : IN_SINGLE_QUOTE;
+                }
+                tokens.add(i, end, TokenType.STRING);
+                i = end;
+            } else if (c == '$' && i + 1 < length) {
+                i++;
+                if (line.charAt(i) == '{') {
+                    int close = line.indexOf('}', i);
+                    i = close < 0 ? length : close + 1;
+                } else {
+                    i = Math.max(i + 1, scanIdentifier(line, i));
+                }
+                tokens.add(start, i, TokenType.VARIABLE);
+            } else if (c == '-' && wordStart) {
+                // Option flag
+                while (i < length && !Character.isWhitespace(line.charAt(i)) && line.charAt(i) != '=') i++;
+                tokens.add(start, i, TokenType.TYPE);
+            } else if (Character.isDigit(c) && wordStart) {
+                i = scanNumber(line, i);
+                tokens.add(start, i, TokenType.NUMBER);
+            } else if (Character.isLetter(c) || c == '_') {
+                i = scanIdentifier(line, i);
+                boolean keyword = wordStart && KEYWORDS.contains(line.substring(start, i));
+                tokens.add(start, i, keyword ? TokenType.KEYWORD : TokenType.PLAIN);
+            } else {
+                i++;
+                tokens.add(start, i, TokenType.PLAIN);
+            }
+        }
+        return INITIAL_STATE;
+    }
+}
@@ -0,0 +1,69 @@
+package com.opencode.minecraft.gui.highlight;
+
+import com.opencode.minecraft.gui.markdown.TextSegment;
+
+import java.util.List;
+
+/**
+ * Line-at-a-time lexer for one language.
+ *
+ * Everything a highlighter needs to know about earlier lines (an open block comment or
+ * multi-line string) is packed into an int state, so a line's tokens only depend on its
+ * text and the state before it. That is what lets results be cached per line and lets a
+ * streaming code block lex only its newest line.
+ */
+public abstract class SyntaxHighlighter {
+    /** State at the start of a code block */
+    public static final int INITIAL_STATE = 0;
+
+    /**
+     * Lexes one line, appending its segments, and returns the state for the next line
+     */
+    public int highlight(String line, int state, List<TextSegment> out) {
+        LineTokens tokens = new LineTokens(line, out);
+        int next = lex(line, state, tokens);
+        tokens.finish();
+        return next;
+    }
+
+    /**
+     * Lexes one line into tokens and returns the state for the next line
+     */
+    protected abstract int lex(String line, int state, LineTokens tokens);
+
+    /**
+     * Finds the end of a quoted string starting after the opening quote, honouring
+     * backslash escapes.
+     *
+     * @return the index after the closing quote, or -1 if the line ends first
+     */
+    protected static int scanQuoted(String line, int from, char quote) {
+        for (int i = from; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    protected static int scanNumber(String line, int from) {
+        int i = from;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '.' && c != '_') break;
+            i++;
+        }
+        return i;
+    }
+
+    protected static int scanIdentifier(String line, int from) {
+        int i = from;
+        while (i < line.length() && Character.isJavaIdentifierPart(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,25 @@
+package com.opencode.minecraft.gui.highlight;
+
+/**
+ * Token classes shared by all highlighters, each with its color in the autumn palette
+ */
+public enum TokenType {
+    PLAIN(0xFFd2691e),    // Copper, same as unhighlighted code blocks
+    KEYWORD(0xFFff7f50),  // Coral
+    TYPE(0xFFf4a460),     // Sandy brown
+    STRING(0xFFdaa520),   // Goldenrod
+    NUMBER(0xFFffa07a),   // Light salmon
+    COMMENT(0xFF8b7d6b),  // Muted taupe
+    KEY(0xFFcd853f),      // Peru, for JSON keys
+    VARIABLE(0xFFffd700); // Golden yellow, for shell variables
+
+    private final int color;
+
+    TokenType(int color) {
+        this.color = color;
+    }
+
+    public int getColor() {
+        return color;
+    }
+}
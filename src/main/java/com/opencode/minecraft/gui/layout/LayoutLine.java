@@ -0,0 +1,20 @@
+package com.opencode.minecraft.gui.layout;
+
+import com.opencode.minecraft.gui.markdown.FormattedLine;
+
+import java.util.List;
+
+/**
+ * One visual line after wrapping: positioned runs ready to draw without measuring.
+ *
+ * @param runs   text runs with their x offset from the left edge
+ * @param source the formatted line this visual line was wrapped from
+ */
+public record LayoutLine(List<Run> runs, FormattedLine source) {
+
+    /**
+     * A piece of a segment placed at an x offset
+     */
+    public record Run(String text, int x, int color) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.opencode.minecraft.gui.layout;
+
+import com.opencode.minecraft.gui.markdown.FormattedLine;
+import com.opencode.minecraft.gui.markdown.TextSegment;
+import net.minecraft.client.gui.Font;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wraps formatted lines to a pixel width.
+ *
+ * Plain text width in the vanilla font is the sum of its glyph advances, so each glyph is
+ * measured once and cached. A segment's cumulative widths are computed in one pass and
+ * break points are found by binary search, preferring the last space that fits.
+ * Client-thread only.
+ */
+public class TextLayout {
+    // Direct lookup for the common range, map for everything else
+    private static final int TABLE_SIZE = 0x800;
+
+    private final Font font;
+    private final int[] advances = new int[TABLE_SIZE];
+    private final Map<Integer, Integer> extendedAdvances = new HashMap<>();
+    private final int indentWidth;
+
+    public TextLayout(Font font) {
+        this.font = font;
+        Arrays.fill(advances, -1);
+        this.indentWidth = font.width("  ");
+    }
+
+    public Font getFont() {
+        return font;
+    }
+
+    /**
+     * Wraps a formatted line into visual lines no wider than {@code maxWidth}.
+     * Continuation lines keep the line's indentation. No text is dropped.
+     */
+    public List<LayoutLine> wrap(FormattedLine line, int maxWidth) {
+        List<LayoutLine> out = new ArrayList<>(1);
+        int indent = line.getIndentLevel() * indentWidth;
+        // Always leave room for at least one glyph
+        int limit = Math.max(indent + 8, maxWidth);
+
+        List<LayoutLine.Run> runs = new ArrayList<>();
+        int x = indent;
+
+        for (TextSegment segment : line.getSegments()) {
+            String text = segment.getText();
+            int color = segment.getEffectiveColor();
+            int[] widths = cumulativeWidths(text);
+
+            int pos = 0;
+            while (pos < text.length()) {
+                int end = fit(text, widths, pos, limit - x);
+                if (end == text.length()) {
+                    runs.add(new LayoutLine.Run(text.substring(pos), x, color));
+                    x += widths[end] - widths[pos];
+                    break;
+                }
+
+                int breakAt = text.lastIndexOf(' ', end);
+                if (breakAt > pos) {
+                    // Break after the last word that fits, dropping the space at the break
+                    runs.add(new LayoutLine.Run(text.substring(pos, breakAt), x, color));
+                    pos = breakAt + 1;
+                } else if (x > indent) {
+                    // The next word does not fit here; move it to a new line
+                } else {
+                    // A single word wider than the line, split it
+                    end = Math.max(end, nextCharEnd(text, pos));
+                    runs.add(new LayoutLine.Run(text.substring(pos, end), x, color));
+                    pos = end;
+                }
+
+                out.add(new LayoutLine(runs, line));
+                runs = new ArrayList<>();
+                x = indent;
+            }
+        }
+
+        if (!runs.isEmpty() || out.isEmpty()) {
+            out.add(new LayoutLine(runs, line));
+        }
+        return out;
+    }
+
+    /**
+     * Finds the largest end index so that text[pos, end) fits in {@code available} pixels
+     */
+    private static int fit(String text, int[] widths, int pos, int available) {
+        int base = widths[pos];
+        int low = pos;
+        int high = text.length();
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (widths[mid] - base <= available) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        // Never split a surrogate pair
+        if (low > pos && low < text.length() && Character.isHighSurrogate(text.charAt(low - 1))) {
+            low--;
+        }
+        return low;
+    }
+
+    private static int nextCharEnd(String text, int pos) {
+        return Math.min(text.length(), pos + Character.charCount(text.codePointAt(pos)));
+    }
+
+    /**
+     * widths[i] is the width of text[0, i)
+     */
+    private int[] cumulativeWidths(String text) {
+        int[] widths = new int[text.length() + 1];
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int advance;
+            if (Character.isHighSurrogate(c) && i + 1 < text.length()) {
+                advance = advance(text.codePointAt(i));
+            } else if (Character.isLowSurrogate(c) && i > 0 && Character.isHighSurrogate(text.charAt(i - 1))) {
+                // Counted with the high surrogate
+                advance = 0;
+            } else {
+                advance = advance(c);
+            }
+            widths[i + 1] = widths[i] + advance;
+        }
+        return widths;
+    }
+
+    private int advance(int codePoint) {
+        if (codePoint < TABLE_SIZE) {
+            int cached = advances[codePoint];
+            if (cached < 0) {
+                cached = font.width(Character.toString(codePoint));
+                advances[codePoint] = cached;
+            }
+            return cached;
+        }
+        return extendedAdvances.computeIfAbsent(codePoint, cp -> font.width(Character.toString(cp)));
+    }
+}
@@ -0,0 +1,20 @@
+package com.opencode.minecraft.gui.markdown;
+
+/**
+ * A run of inline text with uniform style, the leaf of the markdown AST.
+ * Nested emphasis is flattened into the style bits of the runs it covers.
+ *
+ * @param text  visible text, without markdown delimiters
+ * @param style combination of {@link #BOLD}, {@link #ITALIC}, {@link #CODE} and {@link #LINK}
+ * @param href  link target for {@link #LINK} runs, otherwise null
+ */
+public record InlineRun(String text, int style, String href) {
+    public static final int BOLD = 1;
+    public static final int ITALIC = 2;
+    public static final int CODE = 4;
+    public static final int LINK = 8;
+
+    public boolean is(int flag) {
+        return (style & flag) != 0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.opencode.minecraft.gui.markdown;
+
+import java.util.List;
+
+/**
+ * One line of the markdown AST: its block kind and its inline runs.
+ *
+ * @param kind  block kind of the line
+ * @param level header level for {@link Kind#HEADER}, otherwise 0
+ * @param text  fence language for {@link Kind#FENCE_OPEN}, the raw line for {@link Kind#CODE}, otherwise null
+ * @param runs  inline content; empty for fences and code lines
+ */
+public record MarkdownLine(Kind kind, int level, String text, List<InlineRun> runs) {
+    public enum Kind {
+        PARAGRAPH, HEADER, BULLET, ORDERED, FENCE_OPEN, FENCE_CLOSE, CODE
+    }
+}
@@ -1,9 +1,11 @@
 package com.opencode.minecraft.gui.markdown;
 
+import com.opencode.minecraft.gui.highlight.HighlightCache;
+import com.opencode.minecraft.gui.highlight.Highlighters;
+import com.opencode.minecraft.gui.highlight.SyntaxHighlighter;
+
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Parses markdown text into formatted lines with styled segments
@@ -16,202 +18,111 @@ public class MarkdownParser {
     private static final int COLOR_CODE_BLOCK = 0xFFd2691e; // Copper for code blocks
     private static final int COLOR_LINK = 0xFF800020;      // Burgundy for links
 
-    // Regex patterns for inline markdown
-    private static final Pattern BOLD_PATTERN = Pattern.compile("\\*\\*(.+?)\\*\\*|__(.+?)__");
-    private static final Pattern ITALIC_PATTERN = Pattern.compile("\\*(.+?)\\*|_(.+?)_");
-    private static final Pattern CODE_PATTERN = Pattern.compile("`([^`]+?)`");
-    private static final Pattern LINK_PATTERN = Pattern.compile("\\[([^\\]]+?)\\]\\(([^\\)]+?)\\)");
-
     /**
-     * Parse markdown text into formatted lines with word wrapping
+     * Parse markdown text into formatted lines.
+     * Lines are not wrapped here; TextLayout wraps them to the pixel width when they are shown.
      */
     public static List<FormattedLine> parse(String markdownText, int baseColor) {
-        return parse(markdownText, baseColor, 1200); // Default max width
-    }
-
-    /**
-     * Parse markdown text into formatted lines with specified max width
-     */
-    public static List<FormattedLine> parse(String markdownText, int baseColor, int maxWidth) {
         List<FormattedLine> lines = new ArrayList<>();
         String[] rawLines = markdownText.split("\n");
 
-        boolean inCodeBlock = false;
-        String codeBlockLang = "";
-
+        BlockState state = new BlockState();
         for (String line : rawLines) {
-            // Check for code block start/end
-            if (line.trim().startsWith("```")) {
-                if (!inCodeBlock) {
-                    // Starting code block
-                    inCodeBlock = true;
-                    codeBlockLang = line.trim().substring(3).trim();
-                    // Add a separator line
-                    FormattedLine separator = new FormattedLine();
-                    separator.addSegment("[ " + (codeBlockLang.isEmpty() ? "code" : codeBlockLang) + " ]", COLOR_CODE);
-                    lines.add(separator);
-                } else {
-                    // Ending code block
-                    inCodeBlock = false;
-                    FormattedLine separator = new FormattedLine();
-                    separator.addSegment("", COLOR_CODE); // Empty separator
-                    lines.add(separator);
-                }
-                continue;
-            }
-
-            if (inCodeBlock) {
-                // Code block line - wrap if too long
-                if (line.length() > 120) { // Wrap very long code lines
-                    int chunkSize = 120;
-                    for (int i = 0; i < line.length(); i += chunkSize) {
-                        String chunk = line.substring(i, Math.min(i + chunkSize, line.length()));
-                        FormattedLine codeLine = new FormattedLine(new ArrayList<>(), true, 1);
-                        codeLine.addSegment(chunk, COLOR_CODE_BLOCK);
-                        lines.add(codeLine);
-                    }
-                } else {
-                    FormattedLine codeLine = new FormattedLine(new ArrayList<>(), true, 1);
-                    codeLine.addSegment(line, COLOR_CODE_BLOCK);
-                    lines.add(codeLine);
-                }
-            } else {
-                // Regular line - parse inline markdown
-                FormattedLine formattedLine = parseInlineMarkdown(line, baseColor);
-                lines.add(formattedLine);
-            }
+            parseLine(line, baseColor, state, lines);
         }
 
         return lines;
     }
 
     /**
-     * Parse inline markdown within a single line
+     * Parse a single raw line, updating the block state.
+     * The output of a line only depends on the line and the state before it,
+     * which is what lets {@link StreamingMarkdownParser} keep finished lines.
      */
-    private static FormattedLine parseInlineMarkdown(String line, int baseColor) {
-        FormattedLine formattedLine = new FormattedLine();
-
-        // Check for header
-        int headerLevel = 0;
-        String trimmed = line.trim();
-        while (trimmed.startsWith("#")) {
-            headerLevel++;
-            trimmed = trimmed.substring(1);
-        }
-        if (headerLevel > 0 && trimmed.startsWith(" ")) {
-            // This is a header
-            trimmed = trimmed.trim();
-            formattedLine.addSegment(trimmed, COLOR_BOLD);
-            return formattedLine;
-        }
-
-        // Check for list items
-        int indentLevel = 0;
-        if (line.trim().startsWith("- ") || line.trim().startsWith("* ")) {
-            formattedLine = new FormattedLine(new ArrayList<>(), false, 1);
-            line = "• " + line.trim().substring(2);
-        } else if (line.trim().matches("^\\d+\\.\\s+.*")) {
-            formattedLine = new FormattedLine(new ArrayList<>(), false, 1);
+    static void parseLine(String line, int baseColor, BlockState state, List<FormattedLine> lines) {
+        MarkdownLine parsed = MarkdownScanner.get().scanLine(line, state.inCodeBlock);
+        switch (parsed.kind()) {
+            case FENCE_OPEN -> {
+                state.inCodeBlock = true;
+                state.codeBlockLang = parsed.text();
+                state.highlighter = Highlighters.forLanguage(state.codeBlockLang);
+                state.lexState = SyntaxHighlighter.INITIAL_STATE;
+                // Add a separator line
+                FormattedLine separator = new FormattedLine();
+                separator.addSegment("[ " + (state.codeBlockLang.isEmpty() ? "code" : state.codeBlockLang) + " ]", COLOR_CODE);
+                lines.add(separator);
+            }
+            case FENCE_CLOSE -> {
+                state.inCodeBlock = false;
+                state.highlighter = null;
+                FormattedLine separator = new FormattedLine();
+                separator.addSegment("", COLOR_CODE); // Empty separator
+                lines.add(separator);
+            }
+            case CODE -> {
+                // Code block line, highlighted when the language is known.
+                // Long lines are wrapped by TextLayout like any other line.
+                FormattedLine codeLine = new FormattedLine(new ArrayList<>(), true, 1);
+                if (state.highlighter != null) {
+                    state.lexState = HighlightCache.highlight(state.highlighter, line, state.lexState, codeLine.getSegments());
+                } else {
+                    codeLine.addSegment(line, COLOR_CODE_BLOCK);
+                }
+                lines.add(codeLine);
+            }
+            case HEADER -> lines.add(toFormattedLine(parsed.runs(), COLOR_BOLD, 0, null));
+            case BULLET -> lines.add(toFormattedLine(parsed.runs(), baseColor, 1, "\u2022 "));
+            case ORDERED -> lines.add(toFormattedLine(parsed.runs(), baseColor, 1, null));
+            default -> lines.add(toFormattedLine(parsed.runs(), baseColor, 0, null));
         }
-
-        // Parse inline formatting (bold, italic, code, links)
-        parseInlineFormatting(line, baseColor, formattedLine);
-
-        return formattedLine;
     }
 
     /**
-     * Parse inline formatting like **bold**, *italic*, `code`, [links]
+     * Renders inline runs as segments. Bold, code and link colors take precedence in that
+     * order when styles are nested; italic is carried as a flag.
      */
-    private static void parseInlineFormatting(String text, int baseColor, FormattedLine line) {
-        List<FormatSpan> spans = new ArrayList<>();
-
-        // Find all formatting spans
-        Matcher boldMatcher = BOLD_PATTERN.matcher(text);
-        while (boldMatcher.find()) {
-            String content = boldMatcher.group(1) != null ? boldMatcher.group(1) : boldMatcher.group(2);
-            spans.add(new FormatSpan(boldMatcher.start(), boldMatcher.end(), content, FormatType.BOLD));
-        }
-
-        Matcher codeMatcher = CODE_PATTERN.matcher(text);
-        while (codeMatcher.find()) {
-            spans.add(new FormatSpan(codeMatcher.start(), codeMatcher.end(), codeMatcher.group(1), FormatType.CODE));
-        }
-
-        Matcher linkMatcher = LINK_PATTERN.matcher(text);
-        while (linkMatcher.find()) {
-            spans.add(new FormatSpan(linkMatcher.start(), linkMatcher.end(), linkMatcher.group(1), FormatType.LINK));
+    private static FormattedLine toFormattedLine(List<InlineRun> runs, int baseColor, int indentLevel, String prefix) {
+        FormattedLine line = new FormattedLine(new ArrayList<>(), false, indentLevel);
+        if (prefix != null) {
+            line.addSegment(prefix, baseColor);
         }
-
-        // Sort spans by start position
-        spans.sort((a, b) -> Integer.compare(a.start, b.start));
-
-        // Build segments
-        int currentPos = 0;
-        for (FormatSpan span : spans) {
-            // Add text before this span
-            if (span.start > currentPos) {
-                String before = text.substring(currentPos, span.start);
-                if (!before.isEmpty()) {
-                    line.addSegment(before, baseColor);
-                }
-            }
-
-            // Add formatted span
+        for (InlineRun run : runs) {
             int color = baseColor;
-            boolean isBold = false;
-            boolean isCode = false;
-
-            switch (span.type) {
-                case BOLD:
-                    color = COLOR_BOLD;
-                    isBold = true;
-                    break;
-                case CODE:
-                    color = COLOR_CODE;
-                    isCode = true;
-                    break;
-                case LINK:
-                    color = COLOR_LINK;
-                    break;
-            }
-
-            line.addSegment(new TextSegment(span.content, color, isBold, false, isCode, false));
-            currentPos = span.end;
-        }
-
-        // Add remaining text
-        if (currentPos < text.length()) {
-            String remaining = text.substring(currentPos);
-            if (!remaining.isEmpty()) {
-                line.addSegment(remaining, baseColor);
+            if (run.is(InlineRun.BOLD)) {
+                color = COLOR_BOLD;
+            } else if (run.is(InlineRun.CODE)) {
+                color = COLOR_CODE;
+            } else if (run.is(InlineRun.LINK)) {
+                color = COLOR_LINK;
             }
+            line.addSegment(new TextSegment(run.text(), color, run.is(InlineRun.BOLD), run.is(InlineRun.ITALIC),
+                    run.is(InlineRun.CODE), false));
         }
 
-        // If no formatting found, add the whole line
+        // Keep empty lines as one empty segment
         if (line.getSegments().isEmpty()) {
-            line.addSegment(text, baseColor);
+            line.addSegment("", baseColor);
         }
+        return line;
     }
 
     /**
-     * Helper class to track format spans
+     * Block-level state carried from one line to the next
      */
-    private static class FormatSpan {
-        int start;
-        int end;
-        String content;
-        FormatType type;
-
-        FormatSpan(int start, int end, String content, FormatType type) {
-            this.start = start;
-            this.end = end;
-            this.content = content;
-            this.type = type;
+    static class BlockState {
+        boolean inCodeBlock = false;
+        String codeBlockLang = "";
+        // Highlighter of the open code block and its lexer state after the last line
+        SyntaxHighlighter highlighter = null;
+        int lexState = SyntaxHighlighter.INITIAL_STATE;
+
+        BlockState copy() {
+            BlockState copy = new BlockState();
+            copy.inCodeBlock = inCodeBlock;
+            copy.codeBlockLang = codeBlockLang;
+            copy.highlighter = highlighter;
+            copy.lexState = lexState;
+            return copy;
         }
     }
-
-    private enum FormatType {
-        BOLD, ITALIC, CODE, LINK
-    }
 }
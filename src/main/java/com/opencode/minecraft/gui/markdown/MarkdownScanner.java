@@ -0,0 +1,343 @@
+package com.opencode.minecraft.gui.markdown;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hand-written single-pass markdown scanner producing {@link MarkdownLine} ASTs.
+ *
+ * Each line is scanned once from left to right. Code spans, links and escapes are resolved
+ * as they are met; emphasis delimiter runs ({@code *}, {@code **}, {@code _}, {@code __})
+ * are collected and then matched with an opener stack, so nesting like
+ * {@code **bold *both* bold**} works and unmatched delimiters stay literal text.
+ * Styles are recorded as +1/-1 marks in per-character scratch arrays and the runs are cut
+ * in a final pass. The scratch arrays are reused between lines, so the only allocations
+ * are the output runs and their text.
+ *
+ * One scanner per thread, see {@link #get()}.
+ */
+public final class MarkdownScanner {
+    private static final ThreadLocal<MarkdownScanner> INSTANCE = ThreadLocal.withInitial(MarkdownScanner::new);
+
+    // Per-character flags
+    private static final byte HIDDEN = 1;
+    private static final byte IN_CODE = 2;
+    private static final byte IN_LINK = 4;
+    private static final byte LINK_START = 8;
+
+    // Delimiter run flags
+    private static final int CAN_OPEN = 1;
+    private static final int CAN_CLOSE = 2;
+    private static final int UNDERSCORE = 4;
+    private static final int ACTIVE = 8;
+
+    // Per-character scratch: +1/-1 at the start/end of strong and emphasis ranges
+    private int[] strong = new int[128];
+    private int[] emphasis = new int[128];
+    private byte[] flags = new byte[128];
+
+    // Emphasis delimiter runs; [low, high) are the characters not yet used by a match
+    private int[] delimLow = new int[16];
+    private int[] delimHigh = new int[16];
+    private int[] delimFlags = new int[16];
+    private int delimCount = 0;
+
+    // Open '[' positions and resolved link targets, in text order
+    private int[] brackets = new int[8];
+    private int bracketCount = 0;
+    private String[] hrefs = new String[4];
+    private int linkCount = 0;
+
+    private MarkdownScanner() {
+    }
+
+    /**
+     * Gets this thread's scanner
+     */
+    public static MarkdownScanner get() {
+        return INSTANCE.get();
+    }
+
+    /**
+     * Scans one raw line. Fences and code lines depend on whether a code block is open,
+     * which the caller tracks.
+     */
+    public MarkdownLine scanLine(String line, boolean inCodeBlock) {
+        String trimmed = line.trim();
+        if (trimmed.startsWith("```")) {
+            if (inCodeBlock) {
+                return new MarkdownLine(MarkdownLine.Kind.FENCE_CLOSE, 0, null, Collections.emptyList());
+            }
+            return new MarkdownLine(MarkdownLine.Kind.FENCE_OPEN, 0, trimmed.substring(3).trim(), Collections.emptyList());
+        }
+        if (inCodeBlock) {
+            return new MarkdownLine(MarkdownLine.Kind.CODE, 0, line, Collections.emptyList());
+        }
+
+        // Header: one or more '#' and a space
+        int level = 0;
+        while (level < trimmed.length() && trimmed.charAt(level) == '#') level++;
+        if (level > 0 && level < trimmed.length() && trimmed.charAt(level) == ' ') {
+            return new MarkdownLine(MarkdownLine.Kind.HEADER, level, null, scanInline(trimmed, level + 1));
+        }
+
+        // Bullet: "- " or "* "
+        if (trimmed.startsWith("- ") || trimmed.startsWith("* ")) {
+            return new MarkdownLine(MarkdownLine.Kind.BULLET, 0, null, scanInline(trimmed, 2));
+        }
+
+        // Ordered item: digits, '.', whitespace; the number stays part of the text
+        int digits = 0;
+        while (digits < trimmed.length() && Character.isDigit(trimmed.charAt(digits))) digits++;
+        if (digits > 0 && digits + 1 < trimmed.length() && trimmed.charAt(digits) == '.' && Character.isWhitespace(trimmed.charAt(digits + 1))) {
+            return new MarkdownLine(MarkdownLine.Kind.ORDERED, 0, null, scanInline(line, 0));
+        }
+
+        return new MarkdownLine(MarkdownLine.Kind.PARAGRAPH, 0, null, scanInline(line, 0));
+    }
+
+    /**
+     * Scans inline formatting of {@code text} from {@code from} on
+     */
+    public List<InlineRun> scanInline(String text, int from) {
+        int length = text.length();
+        prepare(length);
+
+        int i = Math.max(0, from);
+        int noCloseParenAfter = Integer.MAX_VALUE;
+        while (i < length) {
+            char c = text.charAt(i);
+
+            if (c == '\\' && i + 1 < length && isAsciiPunctuation(text.charAt(i + 1))) {
+                // Escaped character is literal
+                flags[i] |= HIDDEN;
+                i += 2;
+            } else if (c == '`') {
+                i = scanCodeSpan(text, i);
+            } else if (c == '[') {
+                pushBracket(i);
+                i++;
+            } else if (c == ']') {
+                int close = -1;
+                if (bracketCount > 0 && i + 1 < length && text.charAt(i + 1) == '(' && i < noCloseParenAfter) {
+                    close = text.indexOf(')', i + 2);
+                    if (close < 0) noCloseParenAfter = i;
+                }
+                if (close < 0) {
+                    if (bracketCount > 0) bracketCount--;
+                    i++;
+                    continue;
+                }
+                // Links can't contain links: earlier '[' stay literal
+                int open = brackets[bracketCount - 1];
+                bracketCount = 0;
+                addLink(text, open, i, close);
+                i = close + 1;
+            } else if (c == '*' || c == '_') {
+                i = scanDelimiterRun(text, i);
+            } else {
+                i++;
+            }
+        }
+
+        matchEmphasis();
+        return cutRuns(text, Math.max(0, from));
+    }
+
+    private void prepare(int length) {
+        if (flags.length < length + 1) {
+            int size = Math.max(length + 1, flags.length * 2);
+            strong = new int[size];
+            emphasis = new int[size];
+            flags = new byte[size];
+        } else {
+            Arrays.fill(strong, 0, length + 1, 0);
+            Arrays.fill(emphasis, 0, length + 1, 0);
+            Arrays.fill(flags, 0, length + 1, (byte) 0);
+        }
+        delimCount = 0;
+        bracketCount = 0;
+        linkCount = 0;
+    }
+
+    /**
+     * A backtick run opens a code span closed by the next run of the same length.
+     * Without a closer the backticks are literal.
+     */
+    private int scanCodeSpan(String text, int start) {
+        int length = text.length();
+        int ticks = 0;
+        while (start + ticks < length && text.charAt(start + ticks) == '`') ticks++;
+
+        int search = start + ticks;
+        while (search < length) {
+            int next = text.indexOf('`', search);
+            if (next < 0) break;
+            int run = 0;
+            while (next + run < length && text.charAt(next + run) == '`') run++;
+            if (run == ticks) {
+                for (int j = start; j < start + ticks; j++) flags[j] |= HIDDEN;
+                for (int j = start + ticks; j < next; j++) flags[j] |= IN_CODE;
+                for (int j = next; j < next + run; j++) flags[j] |= HIDDEN;
+                return next + run;
+            }
+            search = next + run;
+        }
+        return start + ticks;
+    }
+
+    private void addLink(String text, int open, int closeBracket, int closeParen) {
+        flags[open] |= HIDDEN;
+        for (int j = open + 1; j < closeBracket; j++) {
+            flags[j] |= IN_LINK;
+        }
+        for (int j = closeBracket; j <= closeParen; j++) {
+            flags[j] |= HIDDEN;
+        }
+        if (open + 1 < closeBracket) {
+            flags[open + 1] |= LINK_START;
+            if (linkCount == hrefs.length) hrefs = Arrays.copyOf(hrefs, linkCount * 2);
+            hrefs[linkCount++] = text.substring(closeBracket + 2, closeParen);
+        }
+    }
+
+    private void pushBracket(int position) {
+        if (bracketCount == brackets.length) brackets = Arrays.copyOf(brackets, bracketCount * 2);
+        brackets[bracketCount++] = position;
+    }
+
+    /**
+     * Records a run of '*' or '_' and whether it can open and/or close emphasis
+     */
+    private int scanDelimiterRun(String text, int start) {
+        char c = text.charAt(start);
+        int end = start;
+        while (end < text.length() && text.charAt(end) == c) end++;
+
+        char before = start > 0 ? text.charAt(start - 1) : ' ';
+        char after = end < text.length() ? text.charAt(end) : ' ';
+        boolean canOpen = !Character.isWhitespace(after);
+        boolean canClose = !Character.isWhitespace(before);
+        if (c == '_') {
+            // No intraword emphasis with underscores, e.g. snake_case_names
+            canOpen &= !Character.isLetterOrDigit(before);
+            canClose &= !Character.isLetterOrDigit(after);
+        }
+
+        if (canOpen || canClose) {
+            if (delimCount == delimLow.length) {
+                delimLow = Arrays.copyOf(delimLow, delimCount * 2);
+                delimHigh = Arrays.copyOf(delimHigh, delimCount * 2);
+                delimFlags = Arrays.copyOf(delimFlags, delimCount * 2);
+            }
+            delimLow[delimCount] = start;
+            delimHigh[delimCount] = end;
+            delimFlags[delimCount] = ACTIVE | (canOpen ? CAN_OPEN : 0) | (canClose ? CAN_CLOSE : 0) | (c == '_' ? UNDERSCORE : 0);
+            delimCount++;
+        }
+        return end;
+    }
+
+    /**
+     * Matches closers with the nearest compatible opener. A match uses two characters from
+     * each side for strong and one for emphasis; delimiters between a matched pair can no
+     * longer match anything.
+     */
+    private void matchEmphasis() {
+        // Below these, no opener is left for a closer of that character
+        int starBottom = -1;
+        int underscoreBottom = -1;
+
+        for (int closer = 0; closer < delimCount; closer++) {
+            if ((delimFlags[closer] & CAN_CLOSE) == 0 || (delimFlags[closer] & ACTIVE) == 0) continue;
+            boolean underscore = (delimFlags[closer] & UNDERSCORE) != 0;
+
+            while (delimHigh[closer] > delimLow[closer]) {
+                int bottom = underscore ? underscoreBottom : starBottom;
+                int opener = closer - 1;
+                while (opener > bottom && !isOpenerFor(opener, underscore)) opener--;
+
+                if (opener <= bottom) {
+                    if (underscore) underscoreBottom = closer - 1; else starBottom = closer - 1;
+                    break;
+                }
+
+                int use = delimHigh[opener] - delimLow[opener] >= 2 && delimHigh[closer] - delimLow[closer] >= 2 ? 2 : 1;
+                int[] marks = use == 2 ? strong : emphasis;
+                int openEnd = delimHigh[opener];
+                int closeStart = delimLow[closer];
+                for (int j = openEnd - use; j < openEnd; j++) flags[j] |= HIDDEN;
+                for (int j = closeStart; j < closeStart + use; j++) flags[j] |= HIDDEN;
+                marks[openEnd]++;
+                marks[closeStart]--;
+
+                delimHigh[opener] -= use;
+                delimLow[closer] += use;
+                if (delimHigh[opener] == delimLow[opener]) {
+                    delimFlags[opener] &= ~ACTIVE;
+                }
+                for (int between = opener + 1; between < closer; between++) {
+                    delimFlags[between] &= ~ACTIVE;
+                }
+            }
+
+            if (delimHigh[closer] == delimLow[closer] || (delimFlags[closer] & CAN_OPEN) == 0) {
+                delimFlags[closer] &= ~ACTIVE;
+            }
+        }
+    }
+
+    private boolean isOpenerFor(int delim, boolean underscore) {
+        int f = delimFlags[delim];
+        return (f & ACTIVE) != 0 && (f & CAN_OPEN) != 0 && ((f & UNDERSCORE) != 0) == underscore
+                && delimHigh[delim] > delimLow[delim];
+    }
+
+    /**
+     * Cuts the visible characters into runs of uniform style
+     */
+    private List<InlineRun> cutRuns(String text, int from) {
+        List<InlineRun> runs = new ArrayList<>();
+        int strongDepth = 0;
+        int emphasisDepth = 0;
+        int runStart = -1;
+        int runStyle = 0;
+        String runHref = null;
+        int link = -1;
+
+        for (int i = from; i <= text.length(); i++) {
+            strongDepth += strong[i];
+            emphasisDepth += emphasis[i];
+            if (i == text.length()) break;
+
+            byte f = flags[i];
+            if ((f & LINK_START) != 0) link++;
+            if ((f & HIDDEN) != 0) {
+                if (runStart >= 0) runs.add(new InlineRun(text.substring(runStart, i), runStyle, runHref));
+                runStart = -1;
+                continue;
+            }
+
+            int style = (strongDepth > 0 ? InlineRun.BOLD : 0)
+                    | (emphasisDepth > 0 ? InlineRun.ITALIC : 0)
+                    | ((f & IN_CODE) != 0 ? InlineRun.CODE : 0)
+                    | ((f & IN_LINK) != 0 ? InlineRun.LINK : 0);
+            if (runStart < 0 || style != runStyle || (f & LINK_START) != 0) {
+                if (runStart >= 0) runs.add(new InlineRun(text.substring(runStart, i), runStyle, runHref));
+                runStart = i;
+                runStyle = style;
+                runHref = (style & InlineRun.LINK) != 0 && link >= 0 ? hrefs[link] : null;
+            }
+        }
+        if (runStart >= 0) {
+            runs.add(new InlineRun(text.substring(runStart), runStyle, runHref));
+        }
+        return runs;
+    }
+
+    private static boolean isAsciiPunctuation(char c) {
+        return c < 128 && !Character.isLetterOrDigit(c) && !Character.isWhitespace(c) && !Character.isISOControl(c);
+    }
+}
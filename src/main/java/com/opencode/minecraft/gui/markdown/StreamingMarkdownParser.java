@@ -0,0 +1,97 @@
+package com.opencode.minecraft.gui.markdown;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Incremental markdown parser for a message that arrives in deltas.
+ *
+ * Finished lines are parsed once and kept, together with the block state after them
+ * (open code fence and its language). Only the unfinished last line is re-parsed when
+ * the output is requested. The result is always identical to
+ * {@link MarkdownParser#parse(String, int)} over the whole text, including its
+ * dropping of trailing empty lines.
+ */
+public class StreamingMarkdownParser {
+    private final int baseColor;
+    private final List<FormattedLine> committed = new ArrayList<>();
+    private final MarkdownParser.BlockState state = new MarkdownParser.BlockState();
+    private final StringBuilder tail = new StringBuilder();
+
+    // Finished empty lines not yet followed by content; a full parse drops them at the end
+    private int pendingEmptyLines = 0;
+    private boolean sawNewline = false;
+    private int length = 0;
+
+    public StreamingMarkdownParser(int baseColor) {
+        this.baseColor = baseColor;
+    }
+
+    /**
+     * Appends text, parsing any lines it completes
+     */
+    public void append(String text) {
+        length += text.length();
+
+        int lineStart = 0;
+        int newline;
+        while ((newline = text.indexOf('\n', lineStart)) >= 0) {
+            tail.append(text, lineStart, newline);
+            commitLine(tail.toString());
+            tail.setLength(0);
+            sawNewline = true;
+            lineStart = newline + 1;
+        }
+        tail.append(text, lineStart, text.length());
+    }
+
+    private void commitLine(String line) {
+        if (line.isEmpty()) {
+            pendingEmptyLines++;
+            return;
+        }
+        flushEmptyLines(state, committed);
+        MarkdownParser.parseLine(line, baseColor, state, committed);
+    }
+
+    private void flushEmptyLines(MarkdownParser.BlockState lineState, List<FormattedLine> out) {
+        for (; pendingEmptyLines > 0; pendingEmptyLines--) {
+            MarkdownParser.parseLine("", baseColor, lineState, out);
+        }
+    }
+
+    /**
+     * Gets the lines parsed from finished lines; they never change once returned.
+     * The list grows as more lines are finished.
+     */
+    public List<FormattedLine> getCommittedLines() {
+        return Collections.unmodifiableList(committed);
+    }
+
+    /**
+     * Parses the unfinished part: empty lines still waiting for content and the last line.
+     * Together with {@link #getCommittedLines()} this is the full parse of the text so far.
+     */
+    public List<FormattedLine> parseTail() {
+        List<FormattedLine> lines = new ArrayList<>();
+        if (tail.length() > 0) {
+            MarkdownParser.BlockState tailState = state.copy();
+            for (int i = 0; i < pendingEmptyLines; i++) {
+                MarkdownParser.parseLine("", baseColor, tailState, lines);
+            }
+            MarkdownParser.parseLine(tail.toString(), baseColor, tailState, lines);
+        } else if (!sawNewline) {
+            // An empty text still parses to one empty line
+            MarkdownParser.parseLine("", baseColor, state.copy(), lines);
+        }
+        return lines;
+    }
+
+    /**
+     * Gets the total number of characters appended
+     */
+    public int length() {
+        return length;
+    }
+}
@@ -0,0 +1,78 @@
+package com.opencode.minecraft.gui.transcript;
+
+import com.opencode.minecraft.gui.markdown.FormattedLine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A transcript part shown as a one-line header that expands to a body on demand.
+ *
+ * The body is only built (decoded, parsed and wrapped) while the block is expanded.
+ * Collapsing replaces the part's lines with the header again, so the body lines are freed
+ * and only the source the supplier captured stays in memory.
+ *
+ * While the part is still running (streaming reasoning, a tool call in progress) updates
+ * only replace the header line; an expanded body is built again once the part finishes,
+ * so a streamed block doesn't re-parse its whole body on every delta.
+ */
+public class CollapsibleBlock {
+    private static final int MARKER_COLOR = 0xFFffbf00; // Amber
+
+    private final TranscriptPart part;
+    private FormattedLine header;
+    private Supplier<List<FormattedLine>> body;
+    private boolean expanded = false;
+
+    public CollapsibleBlock(TranscriptPart part, FormattedLine header, Supplier<List<FormattedLine>> body) {
+        this.part = part;
+        part.setBlock(this);
+        update(header, body, false);
+    }
+
+    /**
+     * Replaces the header and body source, e.g. when a tool call changes state.
+     * An expanded body is built again once the part is no longer running; a collapsed one
+     * stays unbuilt.
+     */
+    public void update(FormattedLine header, Supplier<List<FormattedLine>> body, boolean running) {
+        this.header = header;
+        this.body = body;
+        if (expanded && running && part.getLineCount() > 0) {
+            // Keep the body built so far, it is rebuilt when the part finishes
+            part.setLine(0, markedHeader());
+            return;
+        }
+        refresh();
+    }
+
+    public void toggle() {
+        expanded = !expanded;
+        refresh();
+    }
+
+    public boolean isExpanded() {
+        return expanded;
+    }
+
+    public TranscriptPart getPart() {
+        return part;
+    }
+
+    private FormattedLine markedHeader() {
+        FormattedLine marked = new FormattedLine();
+        marked.addSegment(expanded ? "▾ " : "▸ ", MARKER_COLOR);
+        marked.getSegments().addAll(header.getSegments());
+        return marked;
+    }
+
+    private void refresh() {
+        List<FormattedLine> lines = new ArrayList<>();
+        lines.add(markedHeader());
+        if (expanded) {
+            lines.addAll(body.get());
+        }
+        part.setLines(lines);
+    }
+}
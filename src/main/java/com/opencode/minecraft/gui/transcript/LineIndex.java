@@ -0,0 +1,94 @@
+package com.opencode.minecraft.gui.transcript;
+
+import java.util.Arrays;
+
+/**
+ * Prefix sums over the line counts of transcript parts (a Fenwick tree).
+ *
+ * Appending a part, changing its line count, finding the first line of a part and
+ * finding the part that contains a line are all O(log n).
+ */
+class LineIndex {
+    // 1-based Fenwick tree and the plain values it sums
+    private int[] tree = new int[17];
+    private int[] values = new int[17];
+    private int size = 0;
+
+    /**
+     * Appends a part with no lines and returns its index
+     */
+    int append() {
+        if (size + 1 >= tree.length) {
+            tree = Arrays.copyOf(tree, tree.length * 2);
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        size++;
+        // A new node covers (size - lowbit, size]; its own value is still 0
+        tree[size] = prefix(size - 1) - prefix(size - Integer.lowestOneBit(size));
+        values[size] = 0;
+        return size - 1;
+    }
+
+    /**
+     * Sets the line count of a part
+     */
+    void set(int index, int lineCount) {
+        int i = index + 1;
+        int delta = lineCount - values[i];
+        if (delta == 0) return;
+
+        values[i] = lineCount;
+        for (; i <= size; i += Integer.lowestOneBit(i)) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Gets the line count of a part
+     */
+    int get(int index) {
+        return values[index + 1];
+    }
+
+    /**
+     * Gets the total number of lines in the first {@code count} parts
+     */
+    int prefix(int count) {
+        int sum = 0;
+        for (int i = count; i > 0; i -= Integer.lowestOneBit(i)) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    int total() {
+        return prefix(size);
+    }
+
+    /**
+     * Finds the part containing a line; {@code line} must be below {@link #total()}.
+     * Parts without lines are skipped.
+     */
+    int find(int line) {
+        int pos = 0;
+        int remaining = line;
+        for (int step = Integer.highestOneBit(Math.max(1, size)); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= size && tree[next] <= remaining) {
+                pos = next;
+                remaining -= tree[next];
+            }
+        }
+        return pos;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(tree, 0);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+}
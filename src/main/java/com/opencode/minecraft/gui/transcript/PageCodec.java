@@ -0,0 +1,81 @@
+package com.opencode.minecraft.gui.transcript;
+
+import com.opencode.minecraft.gui.markdown.FormattedLine;
+import com.opencode.minecraft.gui.markdown.TextSegment;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact deflated encoding of a page of formatted lines for spilled scrollback.
+ */
+class PageCodec {
+    private static final int FLAG_BOLD = 1;
+    private static final int FLAG_ITALIC = 2;
+    private static final int FLAG_CODE = 4;
+    private static final int FLAG_HEADER = 8;
+
+    static byte[] encode(List<FormattedLine> lines) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeInt(lines.size());
+            for (FormattedLine line : lines) {
+                out.writeBoolean(line.isCodeBlock());
+                out.writeByte(line.getIndentLevel());
+                out.writeInt(line.getSegments().size());
+                for (TextSegment segment : line.getSegments()) {
+                    byte[] text = segment.getText().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(text.length);
+                    out.write(text);
+                    out.writeInt(segment.getColor());
+                    out.writeByte((segment.isBold() ? FLAG_BOLD : 0)
+                            | (segment.isItalic() ? FLAG_ITALIC : 0)
+                            | (segment.isCode() ? FLAG_CODE : 0)
+                            | (segment.isHeader() ? FLAG_HEADER : 0));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<FormattedLine> decode(byte[] page) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(page)))) {
+            int lineCount = in.readInt();
+            List<FormattedLine> lines = new ArrayList<>(lineCount);
+            for (int i = 0; i < lineCount; i++) {
+                boolean codeBlock = in.readBoolean();
+                int indentLevel = in.readByte();
+                int segmentCount = in.readInt();
+                List<TextSegment> segments = new ArrayList<>(segmentCount);
+                for (int j = 0; j < segmentCount; j++) {
+                    byte[] text = new byte[in.readInt()];
+                    in.readFully(text);
+                    int color = in.readInt();
+                    int flags = in.readByte();
+                    segments.add(new TextSegment(new String(text, StandardCharsets.UTF_8), color,
+                            (flags & FLAG_BOLD) != 0, (flags & FLAG_ITALIC) != 0,
+                            (flags & FLAG_CODE) != 0, (flags & FLAG_HEADER) != 0));
+                }
+                lines.add(new FormattedLine(segments, codeBlock, indentLevel));
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
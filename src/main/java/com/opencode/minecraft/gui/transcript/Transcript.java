@@ -0,0 +1,245 @@
+package com.opencode.minecraft.gui.transcript;
+
+import com.opencode.minecraft.gui.layout.LayoutLine;
+import com.opencode.minecraft.gui.layout.TextLayout;
+import com.opencode.minecraft.gui.markdown.FormattedLine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The terminal transcript: messages made of parts, each owning its laid-out lines.
+ *
+ * Line numbers are visual lines after wrapping to the layout width. A prefix-sum index
+ * over the parts' visual line counts maps between line numbers and parts, so replacing
+ * the lines of the streaming part costs O(changed lines + log n) and scrolling or jumping
+ * to a message costs O(log n). Lines are only wrapped again when the width changes.
+ *
+ * To keep memory flat in long sessions, once more than {@code maxResidentLines} visual
+ * lines are held the oldest parts are spilled into deflated pages. Spilled parts keep their
+ * line counts, so scrolling is unaffected; they are inflated when scrolled back into view
+ * and kept in a small LRU of hot pages.
+ */
+public class Transcript {
+    private final List<TranscriptMessage> messages = new ArrayList<>();
+    private final List<TranscriptPart> parts = new ArrayList<>();
+    private final LineIndex index = new LineIndex();
+    private TextLayout layout = null;
+    private int layoutWidth = 0;
+
+    // Spilled parts currently inflated, least recently used first
+    private static final int HOT_PAGES = 8;
+    private final Map<TranscriptPart, Boolean> hotPages = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxResidentLines;
+    private int residentLines = 0;
+    private int spillCursor = 0;
+
+    public Transcript(int maxResidentLines) {
+        this.maxResidentLines = Math.max(1, maxResidentLines);
+    }
+
+    /**
+     * Sets the layout engine and width; re-wraps everything only if either changed
+     */
+    public void setLayout(TextLayout layout, int width) {
+        if (this.layout == layout && this.layoutWidth == width) return;
+
+        this.layout = layout;
+        this.layoutWidth = width;
+        residentLines = 0;
+        for (TranscriptPart part : parts) {
+            part.rewrap();
+            index.set(part.getIndex(), part.getVisualLineCount());
+            if (!part.isSpilled()) {
+                residentLines += part.getVisualLineCount();
+            }
+        }
+        enforceLimit();
+    }
+
+    /**
+     * Wraps a line for the current layout; before a layout is set lines are not shown
+     */
+    List<LayoutLine> wrap(FormattedLine line) {
+        return layout != null ? layout.wrap(line, layoutWidth) : Collections.emptyList();
+    }
+
+    /**
+     * Appends a new message without parts
+     */
+    public TranscriptMessage addMessage(TranscriptMessage.Role role) {
+        TranscriptMessage message = new TranscriptMessage(this, role);
+        messages.add(message);
+        return message;
+    }
+
+    /**
+     * Appends a message with a single part holding the given lines
+     */
+    public TranscriptMessage addMessage(TranscriptMessage.Role role, List<FormattedLine> lines) {
+        TranscriptMessage message = addMessage(role);
+        message.addPart().setLines(lines);
+        return message;
+    }
+
+    TranscriptPart createPart(TranscriptMessage message) {
+        if (messages.isEmpty() || messages.get(messages.size() - 1) != message) {
+            throw new IllegalStateException("Parts can only be added to the last message");
+        }
+        TranscriptPart part = new TranscriptPart(this, message, index.append());
+        parts.add(part);
+        return part;
+    }
+
+    void onLinesChanged(TranscriptPart part) {
+        int previous = index.get(part.getIndex());
+        index.set(part.getIndex(), part.getVisualLineCount());
+        if (!part.isSpilled()) {
+            residentLines += part.getVisualLineCount() - previous;
+            enforceLimit();
+        }
+    }
+
+    /**
+     * Spills the oldest parts until the resident lines are within the limit.
+     * The last part and pinned (streaming) parts stay in memory; pinned parts are skipped
+     * and revisited once unpinned.
+     */
+    private void enforceLimit() {
+        while (residentLines > maxResidentLines && spillCursor < parts.size() - 1) {
+            TranscriptPart part = parts.get(spillCursor++);
+            if (part.isPinned() || part.isSpilled()) continue;
+
+            residentLines -= part.getVisualLineCount();
+            part.spill();
+        }
+    }
+
+    /**
+     * Called before a part is read; inflates it if it was spilled
+     */
+    void touch(TranscriptPart part) {
+        if (!part.isSpilled()) return;
+
+        if (hotPages.get(part) == null) {
+            part.load();
+            hotPages.put(part, Boolean.TRUE);
+
+            Iterator<TranscriptPart> eldest = hotPages.keySet().iterator();
+            while (hotPages.size() > HOT_PAGES) {
+                eldest.next().unload();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Called before a spilled part is modified and becomes resident again
+     */
+    void beforeUnspill(TranscriptPart part) {
+        hotPages.remove(part);
+        residentLines += part.getVisualLineCount();
+        // Resident again, so it can be spilled again
+        spillCursor = Math.min(spillCursor, part.getIndex());
+    }
+
+    /**
+     * Called when a part stops streaming; it may have been skipped while pinned
+     */
+    void onUnpinned(TranscriptPart part) {
+        spillCursor = Math.min(spillCursor, part.getIndex());
+        enforceLimit();
+    }
+
+    /**
+     * Gets the total number of visual lines
+     */
+    public int getLineCount() {
+        return index.total();
+    }
+
+    /**
+     * Gets a visual line by its line number
+     */
+    public LayoutLine getLine(int line) {
+        int partIndex = index.find(line);
+        return parts.get(partIndex).getVisualLine(line - index.prefix(partIndex));
+    }
+
+    /**
+     * Collects the visual lines in {@code [from, to)}, locating the first one in O(log n)
+     * and walking the parts from there
+     */
+    public List<LayoutLine> getLines(int from, int to) {
+        int end = Math.min(to, getLineCount());
+        if (from >= end) return Collections.emptyList();
+
+        int count = end - from;
+        List<LayoutLine> out = new ArrayList<>(count);
+        int partIndex = index.find(from);
+        int offset = from - index.prefix(partIndex);
+        while (out.size() < count) {
+            parts.get(partIndex).collectVisualLines(offset, out, count);
+            partIndex++;
+            offset = 0;
+        }
+        return out;
+    }
+
+    /**
+     * Gets the global line number of a message's first line
+     */
+    public int getStartLine(TranscriptMessage message) {
+        int firstPart = message.getFirstPartIndex();
+        return firstPart < 0 ? getLineCount() : index.prefix(firstPart);
+    }
+
+    /**
+     * Gets the global line number of a part's first line
+     */
+    public int getStartLine(TranscriptPart part) {
+        return index.prefix(part.getIndex());
+    }
+
+    /**
+     * Gets the part that contains a line
+     */
+    public TranscriptPart getPartAt(int line) {
+        return parts.get(index.find(line));
+    }
+
+    /**
+     * Returns true if new parts can still be added to the message
+     */
+    public boolean isLastMessage(TranscriptMessage message) {
+        return !messages.isEmpty() && messages.get(messages.size() - 1) == message;
+    }
+
+    /**
+     * Gets the message that contains a line
+     */
+    public TranscriptMessage getMessageAt(int line) {
+        return parts.get(index.find(line)).getMessage();
+    }
+
+    public List<TranscriptMessage> getMessages() {
+        return Collections.unmodifiableList(messages);
+    }
+
+    public boolean isEmpty() {
+        return messages.isEmpty();
+    }
+
+    public void clear() {
+        messages.clear();
+        parts.clear();
+        index.clear();
+        hotPages.clear();
+        residentLines = 0;
+        spillCursor = 0;
+    }
+}
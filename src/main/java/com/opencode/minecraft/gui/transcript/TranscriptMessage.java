@@ -0,0 +1,48 @@
+package com.opencode.minecraft.gui.transcript;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A message in the transcript, made of parts that own their laid-out lines.
+ */
+public class TranscriptMessage {
+    public enum Role {
+        SYSTEM, USER, ASSISTANT
+    }
+
+    private final Transcript transcript;
+    private final Role role;
+    private final List<TranscriptPart> parts = new ArrayList<>();
+
+    TranscriptMessage(Transcript transcript, Role role) {
+        this.transcript = transcript;
+        this.role = role;
+    }
+
+    /**
+     * Adds a new empty part at the end of this message.
+     * Only the last message of the transcript can grow.
+     */
+    public TranscriptPart addPart() {
+        TranscriptPart part = transcript.createPart(this);
+        parts.add(part);
+        return part;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public List<TranscriptPart> getParts() {
+        return Collections.unmodifiableList(parts);
+    }
+
+    /**
+     * Gets the index of this message's first part, or -1 if it has none
+     */
+    int getFirstPartIndex() {
+        return parts.isEmpty() ? -1 : parts.get(0).getIndex();
+    }
+}
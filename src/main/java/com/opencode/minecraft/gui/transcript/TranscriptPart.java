@@ -0,0 +1,285 @@
+package com.opencode.minecraft.gui.transcript;
+
+import com.opencode.minecraft.gui.layout.LayoutLine;
+import com.opencode.minecraft.gui.markdown.FormattedLine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One part of a transcript message (a text block, a spacer, ...) and the lines laid out for it.
+ *
+ * Each formatted line is wrapped once for the transcript's current width; only lines that
+ * are added are wrapped. Every change reports the new visual line count to the index.
+ *
+ * Old parts can be spilled: their lines are replaced by a deflated page and inflated again
+ * when they are scrolled back into view.
+ */
+public class TranscriptPart {
+    private final Transcript transcript;
+    private final TranscriptMessage message;
+    private final int index;
+    private final List<FormattedLine> lines = new ArrayList<>();
+    private final List<List<LayoutLine>> wrapped = new ArrayList<>();
+    // visualStarts[i] is the number of visual lines before line i
+    private int[] visualStarts = new int[8];
+    private int visualLineCount = 0;
+    private int lineCount = 0;
+
+    // Deflated lines while spilled; lines and wrapped are empty unless the page is loaded
+    private byte[] spilledPage = null;
+    private boolean loaded = true;
+    private boolean pinned = false;
+    private CollapsibleBlock block = null;
+
+    TranscriptPart(Transcript transcript, TranscriptMessage message, int index) {
+        this.transcript = transcript;
+        this.message = message;
+        this.index = index;
+    }
+
+    /**
+     * Replaces all lines of this part
+     */
+    public void setLines(List<FormattedLine> newLines) {
+        unspill();
+        lines.clear();
+        wrapped.clear();
+        visualLineCount = 0;
+        appendLines(newLines);
+        transcript.onLinesChanged(this);
+    }
+
+    /**
+     * Appends lines to this part
+     */
+    public void addLines(List<FormattedLine> newLines) {
+        if (newLines.isEmpty()) return;
+        unspill();
+        appendLines(newLines);
+        transcript.onLinesChanged(this);
+    }
+
+    /**
+     * Replaces one line; only that line is wrapped again
+     */
+    public void setLine(int i, FormattedLine line) {
+        unspill();
+        List<LayoutLine> visual = transcript.wrap(line);
+        int change = visual.size() - wrapped.get(i).size();
+        lines.set(i, line);
+        wrapped.set(i, visual);
+        if (change != 0) {
+            for (int j = i + 1; j < wrapped.size(); j++) {
+                visualStarts[j] += change;
+            }
+            visualLineCount += change;
+        }
+        transcript.onLinesChanged(this);
+    }
+
+    /**
+     * Keeps only the first {@code count} lines
+     */
+    public void truncate(int count) {
+        if (count >= lineCount) return;
+        unspill();
+        int keep = Math.max(0, count);
+        visualLineCount = visualStarts[keep];
+        lines.subList(keep, lines.size()).clear();
+        wrapped.subList(keep, wrapped.size()).clear();
+        lineCount = keep;
+        transcript.onLinesChanged(this);
+    }
+
+    /**
+     * Keeps this part in memory, e.g. while it is still streaming
+     */
+    public void setPinned(boolean pinned) {
+        boolean wasPinned = this.pinned;
+        this.pinned = pinned;
+        if (wasPinned && !pinned) {
+            transcript.onUnpinned(this);
+        }
+    }
+
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    private void appendLines(List<FormattedLine> newLines) {
+        for (FormattedLine line : newLines) {
+            lines.add(line);
+            addWrapped(transcript.wrap(line));
+        }
+        lineCount = lines.size();
+    }
+
+    private void addWrapped(List<LayoutLine> visual) {
+        int i = wrapped.size();
+        if (i >= visualStarts.length) {
+            visualStarts = Arrays.copyOf(visualStarts, visualStarts.length * 2);
+        }
+        visualStarts[i] = visualLineCount;
+        wrapped.add(visual);
+        visualLineCount += visual.size();
+    }
+
+    /**
+     * Wraps every line again after the width changed.
+     * Spilled parts are inflated just long enough to count their visual lines.
+     */
+    void rewrap() {
+        boolean wasLoaded = loaded;
+        if (!loaded) {
+            lines.addAll(PageCodec.decode(spilledPage));
+        }
+
+        wrapped.clear();
+        visualLineCount = 0;
+        for (FormattedLine line : lines) {
+            addWrapped(transcript.wrap(line));
+        }
+
+        if (!wasLoaded) {
+            unload();
+        }
+    }
+
+    boolean isSpilled() {
+        return spilledPage != null;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Replaces the lines with a deflated page
+     */
+    void spill() {
+        if (spilledPage == null) {
+            spilledPage = PageCodec.encode(lines);
+        }
+        unload();
+    }
+
+    /**
+     * Drops the in-memory lines of a spilled part
+     */
+    void unload() {
+        lines.clear();
+        wrapped.clear();
+        loaded = false;
+    }
+
+    /**
+     * Inflates a spilled page for reading
+     */
+    void load() {
+        if (loaded) return;
+        lines.addAll(PageCodec.decode(spilledPage));
+        wrapped.clear();
+        visualLineCount = 0;
+        for (FormattedLine line : lines) {
+            addWrapped(transcript.wrap(line));
+        }
+        loaded = true;
+    }
+
+    /**
+     * Makes a spilled part a normal in-memory part again before it is modified
+     */
+    private void unspill() {
+        if (spilledPage == null) return;
+        transcript.beforeUnspill(this);
+        load();
+        spilledPage = null;
+    }
+
+    /**
+     * Finds the line that contains a visual line offset (binary search)
+     */
+    private int findLine(int offset) {
+        int low = 0;
+        int high = wrapped.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (visualStarts[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the visual line at an offset within this part
+     */
+    LayoutLine getVisualLine(int offset) {
+        transcript.touch(this);
+        int line = findLine(offset);
+        return wrapped.get(line).get(offset - visualStarts[line]);
+    }
+
+    /**
+     * Adds the visual lines from {@code offset} on to {@code out}, stopping at {@code limit} entries
+     */
+    void collectVisualLines(int offset, List<LayoutLine> out, int limit) {
+        if (offset >= visualLineCount) return;
+        transcript.touch(this);
+
+        int line = findLine(offset);
+        int i = offset - visualStarts[line];
+        for (; line < wrapped.size() && out.size() < limit; line++, i = 0) {
+            List<LayoutLine> visual = wrapped.get(line);
+            for (; i < visual.size() && out.size() < limit; i++) {
+                out.add(visual.get(i));
+            }
+        }
+    }
+
+    /**
+     * Gets the formatted lines, inflating them if the part was spilled
+     */
+    public List<FormattedLine> getLines() {
+        transcript.touch(this);
+        return Collections.unmodifiableList(lines);
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Gets the number of lines after wrapping
+     */
+    public int getVisualLineCount() {
+        return visualLineCount;
+    }
+
+    /**
+     * Gets the collapsible block shown in this part, or null for plain parts
+     */
+    public CollapsibleBlock getBlock() {
+        return block;
+    }
+
+    void setBlock(CollapsibleBlock block) {
+        this.block = block;
+    }
+
+    public TranscriptMessage getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets the position of this part in the whole transcript
+     */
+    int getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,34 @@
+package com.opencode.minecraft.mixin;
+
+import net.minecraft.client.GuiMessage;
+import net.minecraft.client.gui.components.ChatComponent;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import java.util.List;
+
+/**
+ * Accessor to update a chat entry in place while it streams.
+ */
+@Mixin(ChatComponent.class)
+public interface ChatComponentAccessor {
+
+    @Accessor("allMessages")
+    List<GuiMessage> opencode$getAllMessages();
+
+    @Accessor("trimmedMessages")
+    List<GuiMessage.Line> opencode$getTrimmedMessages();
+
+    /**
+     * Wraps a message and puts its lines at the bottom of the visible chat
+     */
+    @Invoker("addMessageToDisplayQueue")
+    void opencode$addMessageToDisplayQueue(GuiMessage message);
+
+    /**
+     * Re-wraps every message, used when the streaming entry is no longer the newest one
+     */
+    @Invoker("refreshTrimmedMessages")
+    void opencode$refreshTrimmedMessages();
+}
@@ -1,6 +1,7 @@
 package com.opencode.minecraft.mixin;
 
 import com.opencode.minecraft.game.PauseOverlay;
+import com.opencode.minecraft.game.StatusBar;
 import net.minecraft.client.DeltaTracker;
 import net.minecraft.client.gui.Gui;
 import net.minecraft.client.gui.GuiGraphics;
@@ -10,16 +11,17 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 /**
- * Mixin to render the pause overlay on the HUD.
+ * Mixin to render the pause overlay and the status bar on the HUD.
  */
 @Mixin(Gui.class)
 public abstract class GuiMixin {
 
     /**
-     * Render the pause overlay after the normal HUD renders.
+     * Render the pause overlay and the status bar after the normal HUD renders.
      */
     @Inject(method = "render", at = @At("TAIL"))
     private void opencode$onRender(GuiGraphics context, DeltaTracker tickCounter, CallbackInfo ci) {
         PauseOverlay.render(context, tickCounter.getGameTimeDeltaTicks());
+        StatusBar.render(context);
     }
 }
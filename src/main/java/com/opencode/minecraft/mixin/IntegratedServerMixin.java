@@ -1,10 +1,18 @@
 package com.opencode.minecraft.mixin;
 
 import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.config.PauseMode;
+import com.opencode.minecraft.game.LowPowerIdle;
+import com.opencode.minecraft.game.PauseWindowScheduler;
+import com.opencode.minecraft.game.ProportionalTickRate;
+import com.opencode.minecraft.game.WorldFreeze;
+import com.opencode.minecraft.perf.Subsystem;
+import net.minecraft.Util;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.server.players.PlayerList;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -19,6 +27,9 @@ import java.util.function.BooleanSupplier;
 @Mixin(MinecraftServer.class)
 public abstract class IntegratedServerMixin {
 
+    @Shadow
+    private long nextTickTimeNanos;
+
     @Unique
     private int opencode$ticksSincePlayerJoined = 0;
 
@@ -26,8 +37,10 @@ public abstract class IntegratedServerMixin {
     private static final int OPENCODE$GRACE_TICKS = 100; // ~5 seconds at 20 TPS
 
     /**
-     * Inject at the head of the tick method to potentially cancel it.
-     * When cancelled, the world won't update (entities freeze, time stops).
+     * Inject at the head of the tick method to pause the world.
+     * In FREEZE mode the world is frozen through the tick-rate manager and the tick continues.
+     * In HALT mode the tick is cancelled, so the world won't update (entities freeze, time stops).
+     * In PROPORTIONAL mode the tick rate follows the agent's activity.
      */
     @Inject(method = "tickServer", at = @At("HEAD"), cancellable = true)
     private void opencode$onTick(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
@@ -47,8 +60,50 @@ public abstract class IntegratedServerMixin {
         }
 
         // Now check if we should pause
-        if (OpenCodeMod.getPauseController() != null &&
-            OpenCodeMod.getPauseController().shouldGameBePaused()) {
+        if (OpenCodeMod.getPauseController() == null) return;
+
+        // Open to LAN: combine every player's session state, otherwise use the local one
+        long start = System.nanoTime();
+        boolean paused = server.isPublished()
+                ? OpenCodeMod.getPauseArbitrator().tick(server)
+                : OpenCodeMod.getPauseController().shouldGameBePaused();
+        OpenCodeMod.getFrameBudget().record(Subsystem.SERVER_PAUSE_CHECK, System.nanoTime() - start);
+
+        // Use the pause window for deferred world maintenance
+        PauseWindowScheduler scheduler = OpenCodeMod.getPauseWindowScheduler();
+        boolean maintenancePending = scheduler != null && scheduler.tick(server, paused);
+
+        PauseMode pauseMode = OpenCodeMod.getPauseController().getPauseMode();
+        WorldFreeze worldFreeze = OpenCodeMod.getWorldFreeze();
+        ProportionalTickRate proportionalTickRate = OpenCodeMod.getProportionalTickRate();
+
+        if (pauseMode == PauseMode.PROPORTIONAL) {
+            // Never stop, just follow the agent's activity
+            worldFreeze.update(server, false);
+            proportionalTickRate.apply(server);
+            return;
+        }
+        proportionalTickRate.release(server);
+
+        if (pauseMode == PauseMode.FREEZE) {
+            // Freeze entities and blocks but let the rest of the tick run
+            worldFreeze.update(server, paused);
+            return;
+        }
+
+        // Lift our freeze in case the mode was switched while frozen
+        worldFreeze.update(server, false);
+
+        if (paused) {
+            LowPowerIdle lowPowerIdle = OpenCodeMod.getLowPowerIdle();
+            if (!maintenancePending && lowPowerIdle != null && lowPowerIdle.isEnabled() && !server.isPublished()) {
+                // Sleep through the pause instead of spinning; not on LAN, where
+                // other players' session state arrives as server-thread tasks
+                lowPowerIdle.parkServerThread(server);
+            }
+            // Restart the tick clock so the server does not try to catch up on
+            // the time spent sleeping or on maintenance once it resumes
+            this.nextTickTimeNanos = Util.getNanos();
             ci.cancel();
         }
     }
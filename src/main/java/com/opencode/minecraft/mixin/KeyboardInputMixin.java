@@ -1,6 +1,8 @@
 package com.opencode.minecraft.mixin;
 
 import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.perf.FrameBudget;
+import com.opencode.minecraft.perf.Subsystem;
 import net.minecraft.client.player.Input;
 import net.minecraft.client.player.KeyboardInput;
 import org.spongepowered.asm.mixin.Mixin;
@@ -19,9 +21,14 @@ public abstract class KeyboardInputMixin extends Input {
      */
     @Inject(method = "tick", at = @At("TAIL"))
     private void opencode$onTick(boolean slowDown, float slowDownFactor, CallbackInfo ci) {
-        if (OpenCodeMod.getPauseController() != null &&
-            OpenCodeMod.getPauseController().shouldGameBePaused()) {
+        if (OpenCodeMod.getPauseController() == null) return;
 
+        FrameBudget budget = OpenCodeMod.getFrameBudget();
+        long start = budget.begin();
+        boolean paused = OpenCodeMod.getPauseController().shouldGameBePaused();
+        budget.end(Subsystem.PAUSE_CHECK, start);
+
+        if (paused) {
             // Zero out all movement
             this.up = false;
             this.down = false;
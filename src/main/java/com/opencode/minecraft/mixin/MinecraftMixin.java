@@ -0,0 +1,27 @@
+package com.opencode.minecraft.mixin;
+
+import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.game.LowPowerIdle;
+import net.minecraft.client.Minecraft;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin to lower the client frame rate while the game is paused by OpenCode.
+ */
+@Mixin(Minecraft.class)
+public abstract class MinecraftMixin {
+
+    /**
+     * Cap the frame rate while only the pause overlay is visible.
+     */
+    @Inject(method = "getFramerateLimit", at = @At("RETURN"), cancellable = true)
+    private void opencode$onGetFramerateLimit(CallbackInfoReturnable<Integer> cir) {
+        LowPowerIdle lowPowerIdle = OpenCodeMod.getLowPowerIdle();
+        if (lowPowerIdle != null && lowPowerIdle.isThrottlingClient()) {
+            cir.setReturnValue(Math.min(cir.getReturnValue(), lowPowerIdle.getFrameRateLimit()));
+        }
+    }
+}
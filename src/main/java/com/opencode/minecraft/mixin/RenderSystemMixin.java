@@ -0,0 +1,30 @@
+package com.opencode.minecraft.mixin;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.game.LowPowerIdle;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to make the frame limiter wake up as soon as the pause ends.
+ * At the idle frame rate a vanilla wait could otherwise delay the resume by a whole frame.
+ */
+@Mixin(RenderSystem.class)
+public abstract class RenderSystemMixin {
+
+    @Shadow
+    private static double lastDrawTime;
+
+    @Inject(method = "limitDisplayFPS", at = @At("HEAD"), cancellable = true)
+    private static void opencode$onLimitDisplayFPS(int fps, CallbackInfo ci) {
+        LowPowerIdle lowPowerIdle = OpenCodeMod.getLowPowerIdle();
+        if (lowPowerIdle != null && lowPowerIdle.isThrottlingClient()) {
+            lastDrawTime = lowPowerIdle.waitForNextFrame(lastDrawTime, fps);
+            ci.cancel();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.opencode.minecraft.network;
+
+import com.opencode.minecraft.OpenCodeMod;
+import com.opencode.minecraft.game.PauseArbitrator;
+import com.opencode.minecraft.game.PauseSnapshot;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientPacketListener;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.neoforge.network.PacketDistributor;
+import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+/**
+ * Registers the session state payload and sends the local pause decision to the server.
+ *
+ * The channel is optional, so vanilla servers and clients without the mod can still connect;
+ * pausing is only enabled on servers that accept it.
+ */
+public class OpenCodeNetwork {
+    private static final String PROTOCOL_VERSION = "1";
+
+    // Client-thread only: last value sent on the current connection
+    private static Boolean lastSent = null;
+
+    /**
+     * Registers payload handlers on the mod event bus
+     */
+    public static void register(RegisterPayloadHandlersEvent event) {
+        event.registrar(PROTOCOL_VERSION)
+                .optional()
+                .playToServer(SessionStatePayload.TYPE, SessionStatePayload.STREAM_CODEC, OpenCodeNetwork::handleSessionState);
+    }
+
+    /**
+     * Server side: payload handlers run on the server thread
+     */
+    private static void handleSessionState(SessionStatePayload payload, IPayloadContext context) {
+        PauseArbitrator arbitrator = OpenCodeMod.getPauseArbitrator();
+        if (arbitrator != null && context.player() instanceof ServerPlayer player) {
+            arbitrator.report(player, payload.wantsPause());
+        }
+    }
+
+    /**
+     * Returns true if the current server accepts session state payloads
+     */
+    public static boolean isAvailable() {
+        ClientPacketListener connection = Minecraft.getInstance().getConnection();
+        return connection != null && connection.hasChannel(SessionStatePayload.TYPE);
+    }
+
+    /**
+     * Called on the client thread after joining a world to forget the previous connection
+     */
+    public static void onWorldJoin() {
+        lastSent = null;
+    }
+
+    /**
+     * Pause controller change listener, may be called from any thread
+     */
+    public static void onPauseChanged(PauseSnapshot snapshot) {
+        Minecraft.getInstance().execute(OpenCodeNetwork::sendSessionState);
+    }
+
+    /**
+     * Sends the latest pause decision to the server if it changed
+     */
+    private static void sendSessionState() {
+        PauseSnapshot snapshot = OpenCodeMod.getPauseController().getSnapshot();
+        if (lastSent != null && lastSent == snapshot.paused()) return;
+        if (!isAvailable()) return;
+
+        lastSent = snapshot.paused();
+        PacketDistributor.sendToServer(new SessionStatePayload(snapshot.status().name(), snapshot.paused()));
+    }
+}
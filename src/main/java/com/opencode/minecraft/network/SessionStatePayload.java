@@ -0,0 +1,30 @@
+package com.opencode.minecraft.network;
+
+import com.opencode.minecraft.OpenCodeMod;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Sent by each client to the server whenever its local pause decision changes.
+ *
+ * @param status     the client's session status name, for logging
+ * @param wantsPause true if the client's own pause controller would pause the game
+ */
+public record SessionStatePayload(String status, boolean wantsPause) implements CustomPacketPayload {
+    public static final Type<SessionStatePayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(OpenCodeMod.MOD_ID, "session_state"));
+
+    public static final StreamCodec<ByteBuf, SessionStatePayload> STREAM_CODEC = StreamCodec.composite(
+            ByteBufCodecs.STRING_UTF8, SessionStatePayload::status,
+            ByteBufCodecs.BOOL, SessionStatePayload::wantsPause,
+            SessionStatePayload::new
+    );
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,250 @@
+package com.opencode.minecraft.perf;
+
+import com.opencode.minecraft.OpenCodeMod;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-tick and per-frame nanosecond accounting for all mod work on the client thread.
+ *
+ * Every timed section reports into {@link #record}. Totals are rolled over at the end of
+ * each client tick and each rendered frame and kept in a short ring so rolling maxima can
+ * be queried (see /oc perf).
+ *
+ * The budget also acts as an adaptive guard: non-critical work (re-layout, chat flushes)
+ * goes through {@link #runOrDefer}, which postpones it to a later frame when the mod has
+ * already used more than its share of the current one.
+ */
+public class FrameBudget {
+    private static final Subsystem[] SUBSYSTEMS = Subsystem.values();
+
+    // Roughly 5 seconds of history at 60 FPS / 20 TPS
+    private static final int FRAME_WINDOW = 300;
+    private static final int TICK_WINDOW = 100;
+
+    // Deferred work runs anyway after waiting this many frames
+    private static final int MAX_DEFERRED_FRAMES = 20;
+
+    // Budget used until the first frame time has been measured (~60 FPS)
+    private static final long DEFAULT_FRAME_NANOS = 16_666_666L;
+
+    private final AtomicLongArray frameNanos = new AtomicLongArray(SUBSYSTEMS.length);
+    private final AtomicLongArray tickNanos = new AtomicLongArray(SUBSYSTEMS.length);
+
+    private final long[][] frameHistory = new long[FRAME_WINDOW][SUBSYSTEMS.length];
+    private final long[][] tickHistory = new long[TICK_WINDOW][SUBSYSTEMS.length];
+    private final long[] frameTotalHistory = new long[FRAME_WINDOW];
+    private int frameCursor = 0;
+    private int tickCursor = 0;
+
+    // Client-thread only state
+    private final Map<Object, DeferredTask> deferred = new LinkedHashMap<>();
+    private long frameClientNanos = 0;
+    private int depth = 0;
+    private long lastFrameEnd = 0;
+    private long averageFrameNanos = DEFAULT_FRAME_NANOS;
+    private long frameCount = 0;
+    private long deferredCount = 0;
+    private volatile int budgetPercent;
+
+    public FrameBudget(int budgetPercent) {
+        setBudgetPercent(budgetPercent);
+    }
+
+    /**
+     * Starts a timed section on the client thread.
+     * Must be paired with {@link #end} in a finally block.
+     */
+    public long begin() {
+        depth++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Ends a timed section started with {@link #begin}.
+     * Per-subsystem times include nested sections; the frame total only counts the outermost one.
+     */
+    public void end(Subsystem subsystem, long start) {
+        depth--;
+        record(subsystem, System.nanoTime() - start);
+    }
+
+    /**
+     * Records time spent in a subsystem.
+     * Client-thread subsystems must only be recorded from the client thread.
+     */
+    public void record(Subsystem subsystem, long nanos) {
+        frameNanos.addAndGet(subsystem.ordinal(), nanos);
+        tickNanos.addAndGet(subsystem.ordinal(), nanos);
+        if (subsystem.isClientThread() && depth == 0) {
+            frameClientNanos += nanos;
+        }
+    }
+
+    /**
+     * Returns true if the mod has used up its share of the current frame
+     */
+    public boolean shouldDefer() {
+        return frameClientNanos > getBudgetNanos();
+    }
+
+    /**
+     * Runs non-critical work now if the frame budget allows it, otherwise defers it to a
+     * later frame. Tasks are coalesced by key, so deferring the same key twice only keeps
+     * the latest task.
+     */
+    public void runOrDefer(Object key, Runnable task) {
+        if (!shouldDefer()) {
+            // The new task supersedes anything still pending for this key
+            deferred.remove(key);
+            task.run();
+            return;
+        }
+
+        DeferredTask existing = deferred.get(key);
+        long since = existing != null ? existing.deferredAtFrame : frameCount;
+        deferred.put(key, new DeferredTask(task, since));
+        deferredCount++;
+    }
+
+    /**
+     * Runs a deferred task immediately if one is pending for the key.
+     * Used when later work depends on the deferred work having happened.
+     */
+    public void flush(Object key) {
+        DeferredTask task = deferred.remove(key);
+        if (task != null) {
+            runDeferred(task);
+        }
+    }
+
+    /**
+     * Called at the end of every client tick
+     */
+    public void endTick() {
+        long[] slot = tickHistory[tickCursor];
+        for (int i = 0; i < SUBSYSTEMS.length; i++) {
+            slot[i] = tickNanos.getAndSet(i, 0);
+        }
+        tickCursor = (tickCursor + 1) % TICK_WINDOW;
+    }
+
+    /**
+     * Called at the end of every rendered frame
+     */
+    public void endFrame() {
+        long now = System.nanoTime();
+        if (lastFrameEnd != 0) {
+            long frameTime = now - lastFrameEnd;
+            // Exponential moving average, weight 1/16
+            averageFrameNanos += (frameTime - averageFrameNanos) >> 4;
+        }
+        lastFrameEnd = now;
+
+        long[] slot = frameHistory[frameCursor];
+        for (int i = 0; i < SUBSYSTEMS.length; i++) {
+            slot[i] = frameNanos.getAndSet(i, 0);
+        }
+        frameTotalHistory[frameCursor] = frameClientNanos;
+        frameCursor = (frameCursor + 1) % FRAME_WINDOW;
+        frameClientNanos = 0;
+        frameCount++;
+
+        runDeferredWork();
+    }
+
+    private void runDeferredWork() {
+        if (deferred.isEmpty()) return;
+
+        // Snapshot keys, tasks may defer more work while running
+        for (Object key : deferred.keySet().toArray()) {
+            DeferredTask task = deferred.get(key);
+            if (task == null) continue;
+
+            boolean overdue = frameCount - task.deferredAtFrame >= MAX_DEFERRED_FRAMES;
+            if (shouldDefer() && !overdue) continue;
+
+            deferred.remove(key);
+            runDeferred(task);
+        }
+    }
+
+    private void runDeferred(DeferredTask task) {
+        long start = begin();
+        try {
+            task.task.run();
+        } catch (Exception e) {
+            OpenCodeMod.LOGGER.error("Error in deferred task", e);
+        } finally {
+            end(Subsystem.DEFERRED, start);
+        }
+    }
+
+    /**
+     * Gets the maximum time a subsystem took in a single frame over the recent window
+     */
+    public long getMaxFrameNanos(Subsystem subsystem) {
+        long max = 0;
+        for (long[] slot : frameHistory) {
+            max = Math.max(max, slot[subsystem.ordinal()]);
+        }
+        return max;
+    }
+
+    /**
+     * Gets the maximum time a subsystem took in a single tick over the recent window
+     */
+    public long getMaxTickNanos(Subsystem subsystem) {
+        long max = 0;
+        for (long[] slot : tickHistory) {
+            max = Math.max(max, slot[subsystem.ordinal()]);
+        }
+        return max;
+    }
+
+    /**
+     * Gets the maximum total client-thread time the mod used in a single frame over the recent window
+     */
+    public long getMaxFrameTotalNanos() {
+        long max = 0;
+        for (long total : frameTotalHistory) {
+            max = Math.max(max, total);
+        }
+        return max;
+    }
+
+    public long getAverageFrameNanos() {
+        return averageFrameNanos;
+    }
+
+    public long getBudgetNanos() {
+        return averageFrameNanos * budgetPercent / 100;
+    }
+
+    public int getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    public void setBudgetPercent(int percent) {
+        this.budgetPercent = Math.max(1, Math.min(100, percent));
+    }
+
+    /**
+     * Gets the number of tasks currently waiting for a later frame
+     */
+    public int getPendingCount() {
+        return deferred.size();
+    }
+
+    /**
+     * Gets the number of times work has been deferred since startup
+     */
+    public long getDeferredCount() {
+        return deferredCount;
+    }
+
+    private record DeferredTask(Runnable task, long deferredAtFrame) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.opencode.minecraft.perf;
+
+/**
+ * Areas of mod work that are timed by the {@link FrameBudget}.
+ */
+public enum Subsystem {
+    /**
+     * SSE events dispatched onto the client thread
+     */
+    EVENT_DISPATCH("Event dispatch", true),
+
+    /**
+     * Markdown parsing for the GUI and chat
+     */
+    MARKDOWN("Markdown", true),
+
+    /**
+     * Pause overlay drawn on the HUD
+     */
+    PAUSE_OVERLAY("Pause overlay", true),
+
+    /**
+     * HUD status bar
+     */
+    STATUS_BAR("Status bar", true),
+
+    /**
+     * OpenCode terminal screen rendering
+     */
+    GUI_RENDER("GUI render", true),
+
+    /**
+     * Pause checks made from client mixins
+     */
+    PAUSE_CHECK("Pause check", true),
+
+    /**
+     * Chat output (flushes, tool and system lines)
+     */
+    CHAT("Chat", true),
+
+    /**
+     * Work that was deferred to a later frame
+     */
+    DEFERRED("Deferred work", true),
+
+    /**
+     * Pause checks made from the integrated server thread.
+     * Tracked for visibility but not counted against the client frame.
+     */
+    SERVER_PAUSE_CHECK("Server pause check", false);
+
+    private final String displayName;
+    private final boolean clientThread;
+
+    Subsystem(String displayName, boolean clientThread) {
+        this.displayName = displayName;
+        this.clientThread = clientThread;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Returns true if this work runs on the client thread and counts toward the frame budget
+     */
+    public boolean isClientThread() {
+        return clientThread;
+    }
+}
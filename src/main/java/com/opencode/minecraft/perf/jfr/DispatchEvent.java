@@ -0,0 +1,16 @@
+package com.opencode.minecraft.perf.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event: handling of an SSE event on the client thread.
+ */
+@Name("opencode.Dispatch")
+@Label("Main-Thread Dispatch")
+@Description("Handling of an SSE event on the client thread")
+public class DispatchEvent extends OpenCodeJfrEvent {
+    @Label("Event Type")
+    public String eventType;
+}
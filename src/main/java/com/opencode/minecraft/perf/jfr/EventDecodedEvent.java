@@ -0,0 +1,16 @@
+package com.opencode.minecraft.perf.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event: JSON decoding of an SSE frame into an SseEvent.
+ */
+@Name("opencode.EventDecoded")
+@Label("Event Decoded")
+@Description("JSON decoding of an SSE frame into an SseEvent")
+public class EventDecodedEvent extends OpenCodeJfrEvent {
+    @Label("Event Type")
+    public String eventType;
+}
@@ -0,0 +1,16 @@
+package com.opencode.minecraft.perf.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event: laying out and drawing the visible transcript lines.
+ */
+@Name("opencode.GuiLayout")
+@Label("GUI Layout")
+@Description("Laying out and drawing the visible transcript lines")
+public class GuiLayoutEvent extends OpenCodeJfrEvent {
+    @Label("Lines")
+    public int lines;
+}
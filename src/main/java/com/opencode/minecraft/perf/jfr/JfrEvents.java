@@ -0,0 +1,22 @@
+package com.opencode.minecraft.perf.jfr;
+
+/**
+ * Global switch for the OpenCode Flight Recorder events.
+ *
+ * Call sites check {@link #isEnabled()} before creating an event, so when the
+ * setting is off the only cost is a single field read.
+ */
+public final class JfrEvents {
+    private static volatile boolean enabled = false;
+
+    private JfrEvents() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        JfrEvents.enabled = enabled;
+    }
+}
@@ -0,0 +1,23 @@
+package com.opencode.minecraft.perf.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base for all OpenCode Flight Recorder events.
+ * Duration comes from the standard JFR begin()/commit() timing.
+ */
+@Category({"OpenCode"})
+@StackTrace(false)
+public abstract class OpenCodeJfrEvent extends Event {
+    @Label("Session ID")
+    @Description("OpenCode session the work belongs to, if known")
+    public String sessionId;
+
+    @Label("Characters")
+    @Description("Size of the text the work handled, in UTF-16 chars")
+    public long chars;
+}
@@ -0,0 +1,19 @@
+package com.opencode.minecraft.perf.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event: a change in the state driving the game pause.
+ */
+@Name("opencode.PauseTransition")
+@Label("Pause-State Transition")
+@Description("A change in the state driving the game pause")
+public class PauseTransitionEvent extends OpenCodeJfrEvent {
+    @Label("From")
+    public String from;
+
+    @Label("To")
+    public String to;
+}
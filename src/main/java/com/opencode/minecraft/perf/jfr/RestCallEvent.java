@@ -0,0 +1,19 @@
+package com.opencode.minecraft.perf.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event: a request to the OpenCode REST API.
+ */
+@Name("opencode.RestCall")
+@Label("REST Call")
+@Description("A request to the OpenCode REST API")
+public class RestCallEvent extends OpenCodeJfrEvent {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Status Code")
+    public int statusCode;
+}
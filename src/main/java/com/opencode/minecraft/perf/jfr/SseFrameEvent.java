@@ -0,0 +1,16 @@
+package com.opencode.minecraft.perf.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event: a data line read from the OpenCode event stream.
+ */
+@Name("opencode.SseFrame")
+@Label("SSE Frame Received")
+@Description("A data line read from the OpenCode event stream")
+public class SseFrameEvent extends OpenCodeJfrEvent {
+    @Label("Event Type")
+    public String eventType;
+}
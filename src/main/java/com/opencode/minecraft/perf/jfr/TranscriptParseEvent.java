@@ -0,0 +1,16 @@
+package com.opencode.minecraft.perf.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event: markdown parsing of transcript text for the terminal GUI.
+ */
+@Name("opencode.TranscriptParse")
+@Label("Transcript Re-Parse")
+@Description("Markdown parsing of transcript text for the terminal GUI")
+public class TranscriptParseEvent extends OpenCodeJfrEvent {
+    @Label("Lines")
+    public int lines;
+}